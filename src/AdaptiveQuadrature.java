@@ -0,0 +1,162 @@
+import exception.NotAllowedScopeException;
+import exception.NotSolvableIntegralException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public class AdaptiveQuadrature {
+    static private final int SEGMENTS_MAX_VALUE = 1_000_000;
+    static private final double MIN_RELATIVE_LENGTH = 1e-12d;
+
+    private final Function function;
+    private final Bounds bounds;
+
+    private long evaluationsCount;
+
+    public AdaptiveQuadrature(Function function, Bounds bounds) {
+        this.function = function;
+        this.bounds = bounds;
+    }
+
+    public ReimannSumAnswer getAnswer(double accuracy)
+            throws NotAllowedScopeException, NotSolvableIntegralException {
+        return getAnswer(accuracy, IntegrationBudget.UNLIMITED);
+    }
+
+    public ReimannSumAnswer getAnswer(double accuracy, IntegrationBudget budget)
+            throws NotAllowedScopeException, NotSolvableIntegralException {
+        double leftBound = bounds.getLeftBound();
+        double rightBound = bounds.getRightBound();
+        double middle = (leftBound + rightBound) / 2;
+
+        PriorityQueue<Segment> segments = new PriorityQueue<>();
+        List<Segment> finalSegments = new ArrayList<>();
+
+        Segment root = createSegment(leftBound, middle, rightBound,
+                getValue(leftBound), getValue(middle), getValue(rightBound));
+        segments.add(root);
+        double error = root.error;
+        boolean converged = true;
+
+        while (!(error < accuracy)) {
+            // a split evaluates the two new quarter points of both halves
+            if (budget.isExhausted(evaluationsCount + 4)) {
+                converged = false;
+                break;
+            }
+
+            Segment worst = segments.poll();
+
+            if (worst == null) {
+                throw new NotSolvableIntegralException();
+            }
+
+            if (Math.abs(worst.getLength()) < Math.abs(bounds.getLength()) * MIN_RELATIVE_LENGTH) {
+                finalSegments.add(worst);
+                continue;
+            }
+
+            Segment left = createSegment(worst.leftBound, worst.leftMiddle, worst.middle,
+                    worst.leftValue, worst.leftMiddleValue, worst.middleValue);
+            Segment right = createSegment(worst.middle, worst.rightMiddle, worst.rightBound,
+                    worst.middleValue, worst.rightMiddleValue, worst.rightValue);
+
+            error += left.error + right.error - worst.error;
+            segments.add(left);
+            segments.add(right);
+
+            if (segments.size() + finalSegments.size() > SEGMENTS_MAX_VALUE) {
+                throw new NotSolvableIntegralException();
+            }
+        }
+
+        finalSegments.addAll(segments);
+
+        double value = 0d;
+        error = 0d;
+
+        for (Segment segment : finalSegments) {
+            value += segment.value;
+            error += segment.error;
+        }
+
+        if (!function.isCountableValue(value)) {
+            throw new NotSolvableIntegralException();
+        }
+
+        return new ReimannSumAnswer(value, error, finalSegments.size(), evaluationsCount, 0, converged);
+    }
+
+    private Segment createSegment(
+            double leftBound,
+            double middle,
+            double rightBound,
+            double leftValue,
+            double middleValue,
+            double rightValue
+    ) throws NotAllowedScopeException {
+        double leftMiddle = (leftBound + middle) / 2;
+        double rightMiddle = (middle + rightBound) / 2;
+
+        return new Segment(
+                leftBound, leftMiddle, middle, rightMiddle, rightBound,
+                leftValue, getValue(leftMiddle), middleValue, getValue(rightMiddle), rightValue
+        );
+    }
+
+    private double getValue(double argument) throws NotAllowedScopeException {
+        evaluationsCount++;
+        return function.getValue(argument);
+    }
+
+    private static class Segment implements Comparable<Segment> {
+        private final double leftBound;
+        private final double leftMiddle;
+        private final double middle;
+        private final double rightMiddle;
+        private final double rightBound;
+
+        private final double leftValue;
+        private final double leftMiddleValue;
+        private final double middleValue;
+        private final double rightMiddleValue;
+        private final double rightValue;
+
+        private final double value;
+        private final double error;
+
+        Segment(
+                double leftBound, double leftMiddle, double middle, double rightMiddle, double rightBound,
+                double leftValue, double leftMiddleValue, double middleValue, double rightMiddleValue, double rightValue
+        ) {
+            this.leftBound = leftBound;
+            this.leftMiddle = leftMiddle;
+            this.middle = middle;
+            this.rightMiddle = rightMiddle;
+            this.rightBound = rightBound;
+            this.leftValue = leftValue;
+            this.leftMiddleValue = leftMiddleValue;
+            this.middleValue = middleValue;
+            this.rightMiddleValue = rightMiddleValue;
+            this.rightValue = rightValue;
+
+            double length = rightBound - leftBound;
+            double whole = (leftValue + 4 * middleValue + rightValue) * length / 6;
+            double halves = (leftValue + 4 * leftMiddleValue + 2 * middleValue + 4 * rightMiddleValue + rightValue)
+                    * length / 12;
+
+            this.value = halves + (halves - whole) / 15;
+            this.error = Math.abs(halves - whole) / 15;
+        }
+
+        double getLength() {
+            return rightBound - leftBound;
+        }
+
+        @Override
+        public int compareTo(Segment that) {
+            return Double.compare(that.error, this.error);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Non-blocking front of ReimannSum, one instance can be shared by any number of threads.
+ * Futures complete exceptionally with the checked exceptions of ReimannSum as causes.
+ * Cancelling a future stops its integration at the next check of the budget.
+ */
+public class AsyncReimannSum {
+    private final ReimannSum reimannSum;
+    private final Executor executor;
+    private final ExecutorService ownExecutor;
+    private final int maxActiveCount;
+    private final Semaphore permits;
+    private final Queue<Task> pending = new ConcurrentLinkedQueue<>();
+
+    public AsyncReimannSum(ReimannSum reimannSum) {
+        this(reimannSum, Runtime.getRuntime().availableProcessors());
+    }
+
+    public AsyncReimannSum(ReimannSum reimannSum, int maxActiveCount) {
+        this(reimannSum, null, maxActiveCount);
+    }
+
+    // executor null means an own pool of daemon threads, shut down by shutdown()
+    public AsyncReimannSum(ReimannSum reimannSum, Executor executor, int maxActiveCount) {
+        if (maxActiveCount < 1) {
+            throw new IllegalArgumentException("Count of active integrations should be positive!");
+        }
+
+        this.reimannSum = reimannSum;
+        this.maxActiveCount = maxActiveCount;
+        this.permits = new Semaphore(maxActiveCount);
+
+        if (executor == null) {
+            this.ownExecutor = Executors.newFixedThreadPool(maxActiveCount, runnable -> {
+                Thread thread = new Thread(runnable, "reimann-sum-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor = ownExecutor;
+        } else {
+            this.ownExecutor = null;
+            this.executor = executor;
+        }
+    }
+
+    public CompletableFuture<ReimannSumAnswer> getReimannSum(
+            Function function,
+            Bounds bounds,
+            double accuracy,
+            ReimannSumRule rule,
+            TypeOfSolution solutionType,
+            TypeOfExecution executionType
+    ) {
+        Task task = new Task(function, bounds, accuracy, rule, solutionType, executionType);
+        pending.add(task);
+        dispatch();
+
+        return task.result;
+    }
+
+    public CompletableFuture<ReimannSumAnswer> getReimannSum(
+            Function function,
+            Bounds bounds,
+            double accuracy,
+            ReimannSumRule rule,
+            TypeOfSolution solutionType
+    ) {
+        return getReimannSum(
+                function,
+                bounds,
+                accuracy,
+                rule,
+                solutionType,
+                TypeOfExecution.SEQUENTIAL_EXECUTION
+        );
+    }
+
+    public CompletableFuture<ReimannSumAnswer> getReimannSum(Function function, Bounds bounds, double accuracy) {
+        return getReimannSum(
+                function,
+                bounds,
+                accuracy,
+                ReimannSumRule.TRAPEZOIDAL_RULE,
+                TypeOfSolution.SOLUTION_BY_RUNGE
+        );
+    }
+
+    public int getActiveCount() {
+        return maxActiveCount - permits.availablePermits();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public void shutdown() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    // tasks wait in the queue rather than in blocked threads, so the executor never holds more than the permitted count
+    private void dispatch() {
+        while (!pending.isEmpty() && permits.tryAcquire()) {
+            Task task = pending.poll();
+
+            if (task == null) {
+                permits.release();
+                continue;
+            }
+
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                task.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private class Task implements Runnable {
+        private final Function function;
+        private final Bounds bounds;
+        private final double accuracy;
+        private final ReimannSumRule rule;
+        private final TypeOfSolution solutionType;
+        private final TypeOfExecution executionType;
+        private final CancellationToken cancellationToken = new CancellationToken();
+        private final CompletableFuture<ReimannSumAnswer> result = new CompletableFuture<>();
+
+        Task(
+                Function function,
+                Bounds bounds,
+                double accuracy,
+                ReimannSumRule rule,
+                TypeOfSolution solutionType,
+                TypeOfExecution executionType
+        ) {
+            this.function = function;
+            this.bounds = bounds;
+            this.accuracy = accuracy;
+            this.rule = rule;
+            this.solutionType = solutionType;
+            this.executionType = executionType;
+
+            result.whenComplete((answer, e) -> {
+                if (e instanceof CancellationException) {
+                    cancellationToken.cancel();
+                }
+            });
+        }
+
+        @Override
+        public void run() {
+            try {
+                // a future cancelled while waiting for a permit is skipped
+                if (!result.isDone()) {
+                    result.complete(reimannSum.getReimannSum(
+                            function,
+                            bounds,
+                            accuracy,
+                            rule,
+                            solutionType,
+                            executionType,
+                            IntegrationBudget.of(cancellationToken)
+                    ));
+                }
+            } catch (Throwable e) {
+                // errors too, e.g. StackOverflowError of a deep formula, or the callers would wait forever
+                result.completeExceptionally(e);
+            } finally {
+                permits.release();
+                dispatch();
+            }
+        }
+    }
+}
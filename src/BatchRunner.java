@@ -0,0 +1,136 @@
+import exception.InvalidFormulaException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs job lines of IntegrationJob on a worker pool.
+ * Results are printed in input order, at most windowSize jobs are kept in memory.
+ */
+public class BatchRunner {
+    static final int DEFAULT_WINDOW_SIZE = 1024;
+
+    private final Function[] functions;
+    private final ReimannSum reimannSum;
+    private final int threadsCount;
+    private final int windowSize;
+    private final boolean isJson;
+
+    public BatchRunner(Function[] functions, ReimannSum reimannSum, boolean isJson) {
+        this(functions, reimannSum, Runtime.getRuntime().availableProcessors(), DEFAULT_WINDOW_SIZE, isJson);
+    }
+
+    public BatchRunner(Function[] functions, ReimannSum reimannSum, int threadsCount, int windowSize, boolean isJson) {
+        if (threadsCount < 1 || windowSize < 1) {
+            throw new IllegalArgumentException("Count of threads and size of window should be positive!");
+        }
+
+        this.functions = functions;
+        this.reimannSum = reimannSum;
+        this.threadsCount = threadsCount;
+        this.windowSize = windowSize;
+        this.isJson = isJson;
+    }
+
+    public void run(BufferedReader in, PrintWriter out) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(threadsCount, runnable -> {
+            Thread thread = new Thread(runnable, "batch-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // the window lets later jobs run while the oldest one is still computed, output order stays the input order
+        Deque<CompletableFuture<String>> window = new ArrayDeque<>();
+
+        try {
+            if (!isJson) {
+                out.println("line,value,measurement_error,steps,status");
+            }
+
+            String line;
+            int lineNumber = 0;
+
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                if (window.size() == windowSize) {
+                    out.println(getResult(window.poll()));
+
+                    if (!in.ready()) {
+                        out.flush();
+                    }
+                }
+
+                window.add(submit(workers, lineNumber, line));
+            }
+
+            while (!window.isEmpty()) {
+                out.println(getResult(window.poll()));
+            }
+
+            out.flush();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<String> submit(ExecutorService workers, int lineNumber, String line) {
+        IntegrationJob job;
+
+        try {
+            job = IntegrationJob.parse(line, functions);
+        } catch (IllegalArgumentException | InvalidFormulaException e) {
+            return CompletableFuture.completedFuture(formatError(lineNumber, "bad input: " + e.getMessage()));
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return format(lineNumber, job.run(reimannSum));
+            } catch (Exception e) {
+                return formatError(lineNumber, IntegrationJob.getStatus(e));
+            }
+        }, workers);
+    }
+
+    private String getResult(CompletableFuture<String> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch is interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Job failed unexpectedly", e.getCause());
+        }
+    }
+
+    private String format(int lineNumber, ReimannSumAnswer answer) {
+        if (isJson) {
+            return IntegrationJob.toJson(lineNumber, answer);
+        }
+
+        double error = answer.getMeasurementError();
+
+        return lineNumber + "," + answer.getValue() + "," + (Double.isNaN(error) ? "" : String.valueOf(error)) +
+                "," + answer.getIterationsCount() + ",ok";
+    }
+
+    private String formatError(int lineNumber, String status) {
+        if (isJson) {
+            return IntegrationJob.toJson(lineNumber, status);
+        }
+
+        return lineNumber + ",,,,\"" + status.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,75 @@
+import java.util.Arrays;
+
+/**
+ * Bounds of every coordinate, the multivariate counterpart of Bounds.
+ */
+public class Box {
+    private final double[] leftBounds;
+    private final double[] rightBounds;
+
+    public Box(double[] leftBounds, double[] rightBounds) {
+        if (leftBounds.length != rightBounds.length || leftBounds.length == 0) {
+            throw new IllegalArgumentException("Box should have the same positive count of left and right bounds!");
+        }
+
+        for (int i = 0; i < leftBounds.length; i++) {
+            if (Double.isInfinite(leftBounds[i]) || Double.isInfinite(rightBounds[i])) {
+                throw new IllegalArgumentException("Bounds of box should be finite!");
+            }
+        }
+
+        this.leftBounds = Arrays.copyOf(leftBounds, leftBounds.length);
+        this.rightBounds = Arrays.copyOf(rightBounds, rightBounds.length);
+    }
+
+    public static Box of(Bounds... bounds) {
+        double[] leftBounds = new double[bounds.length];
+        double[] rightBounds = new double[bounds.length];
+
+        for (int i = 0; i < bounds.length; i++) {
+            leftBounds[i] = bounds[i].getLeftBound();
+            rightBounds[i] = bounds[i].getRightBound();
+        }
+
+        return new Box(leftBounds, rightBounds);
+    }
+
+    // the unit cube of the given dimension
+    public static Box ofUnitCube(int dimension) {
+        double[] rightBounds = new double[dimension];
+        Arrays.fill(rightBounds, 1d);
+
+        return new Box(new double[dimension], rightBounds);
+    }
+
+    public int getDimension() {
+        return leftBounds.length;
+    }
+
+    public Bounds getBounds(int coordinate) {
+        return new Bounds(leftBounds[coordinate], rightBounds[coordinate]);
+    }
+
+    public double getLeftBound(int coordinate) {
+        return leftBounds[coordinate];
+    }
+
+    public double getRightBound(int coordinate) {
+        return rightBounds[coordinate];
+    }
+
+    public double getLength(int coordinate) {
+        return rightBounds[coordinate] - leftBounds[coordinate];
+    }
+
+    // signed like Bounds.getLength(), so reversed bounds change the sign of an integral
+    public double getVolume() {
+        double res = 1d;
+
+        for (int i = 0; i < leftBounds.length; i++) {
+            res *= getLength(i);
+        }
+
+        return res;
+    }
+}
@@ -0,0 +1,65 @@
+import exception.NotSolvableIntegralException;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Integrals of a multivariate function over a box, the multivariate counterpart of ReimannSum.
+ * Answers keep the count of nodes per coordinate or of points per stream as the count of steps.
+ */
+public class Cubature {
+    // above it the tensor product costs more than quasi-Monte Carlo
+    static private final int GAUSS_LEGENDRE_MAX_DIMENSION = 4;
+
+    private final ForkJoinPool pool;
+
+    public Cubature() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public Cubature(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public ReimannSumAnswer getCubature(
+            MultivariateFunction function,
+            Box box,
+            double accuracy,
+            TypeOfCubature cubatureType,
+            IntegrationBudget budget
+    ) throws NotSolvableIntegralException {
+        if (function.getDimension() != box.getDimension()) {
+            throw new IllegalArgumentException("Dimensions of function and box should be equal!");
+        }
+
+        switch (cubatureType) {
+            case CUBATURE_BY_GAUSS_LEGENDRE:
+                return new GaussLegendreCubature(function, box, pool).getAnswer(accuracy, budget);
+            case CUBATURE_BY_QUASI_MONTE_CARLO:
+                return new QuasiMonteCarloCubature(function, box, pool).getAnswer(accuracy, budget);
+            default:
+                throw new IllegalArgumentException("Unknown cubature " + cubatureType);
+        }
+    }
+
+    public ReimannSumAnswer getCubature(
+            MultivariateFunction function,
+            Box box,
+            double accuracy,
+            TypeOfCubature cubatureType
+    ) throws NotSolvableIntegralException {
+        return getCubature(function, box, accuracy, cubatureType, IntegrationBudget.UNLIMITED);
+    }
+
+    // the tensor product for low dimensions, quasi-Monte Carlo for the higher ones
+    public ReimannSumAnswer getCubature(MultivariateFunction function, Box box, double accuracy)
+            throws NotSolvableIntegralException {
+        return getCubature(
+                function,
+                box,
+                accuracy,
+                box.getDimension() <= GAUSS_LEGENDRE_MAX_DIMENSION
+                        ? TypeOfCubature.CUBATURE_BY_GAUSS_LEGENDRE
+                        : TypeOfCubature.CUBATURE_BY_QUASI_MONTE_CARLO
+        );
+    }
+}
@@ -0,0 +1,172 @@
+import exception.NotAllowedScopeException;
+import exception.NotSolvableIntegralException;
+
+/**
+ * Double exponential quadrature: the substitution x = x(t) makes the integrand decay double exponentially in t,
+ * so the trapezoidal rule in t converges fast even with singularities at the bounds.
+ * Finite bounds use tanh-sinh, a half-infinite range exp-sinh and the whole axis sinh-sinh.
+ */
+public class DoubleExponentialQuadrature {
+    static private final int LEVELS_MAX_VALUE = 12;
+    static private final int LEVELS_MIN_VALUE = 3;
+    // keeps exp(PI / 2 * sinh(t)) finite
+    static private final double T_MAX_VALUE = asinh(700d / (Math.PI / 2));
+
+    private final Function function;
+    private final Bounds bounds;
+
+    private long evaluationsCount;
+
+    public DoubleExponentialQuadrature(Function function, Bounds bounds) {
+        this.function = function;
+        this.bounds = bounds;
+    }
+
+    public ReimannSumAnswer getAnswer(double accuracy)
+            throws NotAllowedScopeException, NotSolvableIntegralException {
+        return getAnswer(accuracy, IntegrationBudget.UNLIMITED);
+    }
+
+    public ReimannSumAnswer getAnswer(double accuracy, IntegrationBudget budget)
+            throws NotAllowedScopeException, NotSolvableIntegralException {
+        double leftBound = Math.min(bounds.getLeftBound(), bounds.getRightBound());
+        double rightBound = Math.max(bounds.getLeftBound(), bounds.getRightBound());
+        double sign = bounds.getLeftBound() <= bounds.getRightBound() ? 1d : -1d;
+
+        if (leftBound == rightBound) {
+            return new ReimannSumAnswer(0d, 0d, 0);
+        }
+
+        Transformation transformation = getTransformation(leftBound, rightBound);
+
+        // level 0 takes every integer t, each next level halves the step and adds only the new odd nodes
+        double sum = transformation.getTerm(0d) + getLevelSum(transformation, 1d, 1);
+        double step = 1d;
+        double value = sum * step;
+        double error = Double.NaN;
+        int nodesCount = (int) evaluationsCount;
+
+        for (int level = 1; level <= LEVELS_MAX_VALUE; level++) {
+            // the next level evaluates about as many nodes as all the previous ones
+            if (budget.isExhausted(2 * evaluationsCount)) {
+                return new ReimannSumAnswer(sign * value, error, nodesCount, evaluationsCount, 0, false);
+            }
+
+            step /= 2;
+            sum += getLevelSum(transformation, step, 2);
+
+            double prevValue = value;
+            value = sum * step;
+            error = Math.abs(value - prevValue);
+            nodesCount = (int) evaluationsCount;
+
+            if (!function.isCountableValue(value)) {
+                throw new NotSolvableIntegralException();
+            }
+
+            if (level >= LEVELS_MIN_VALUE && error < accuracy) {
+                return new ReimannSumAnswer(sign * value, error, nodesCount, evaluationsCount);
+            }
+        }
+
+        throw new NotSolvableIntegralException();
+    }
+
+    // sum of the terms at t = +-k * step for k = 1, 1 + stride, 1 + 2 * stride, ...
+    private double getLevelSum(Transformation transformation, double step, int stride)
+            throws NotAllowedScopeException {
+        double sum = 0d;
+
+        for (int direction = -1; direction <= 1; direction += 2) {
+            for (int k = 1; k * step <= T_MAX_VALUE; k += stride) {
+                double term = transformation.getTerm(direction * k * step);
+
+                // the node reached a bound, the weight vanished or the term underflowed: the rest of the tail is negligible
+                if (Double.isNaN(term) || (term == 0d && k * step > 1d)) {
+                    break;
+                }
+
+                sum += term;
+            }
+        }
+
+        return sum;
+    }
+
+    // NaN means that the tail is cut here
+    private double getTerm(double argument, double weight, double t) throws NotAllowedScopeException {
+        if (weight == 0d || Double.isInfinite(weight) || Double.isInfinite(argument)) {
+            return Double.NaN;
+        }
+
+        evaluationsCount++;
+        double value = function.getCountableValue(argument);
+
+        if (Double.isNaN(value)) {
+            // a bound may be a singular point, the centre of the range may not
+            if (Math.abs(t) > 1d) {
+                return Double.NaN;
+            }
+
+            throw new NotAllowedScopeException();
+        }
+
+        return value * weight;
+    }
+
+    private Transformation getTransformation(double leftBound, double rightBound) {
+        boolean isLeftInfinite = Double.isInfinite(leftBound);
+        boolean isRightInfinite = Double.isInfinite(rightBound);
+
+        if (isLeftInfinite && isRightInfinite) {
+            // x = sinh(PI / 2 * sinh(t))
+            return t -> {
+                double u = Math.PI / 2 * Math.sinh(t);
+                return getTerm(Math.sinh(u), Math.PI / 2 * Math.cosh(t) * Math.cosh(u), t);
+            };
+        }
+
+        if (isLeftInfinite || isRightInfinite) {
+            // x = bound +- exp(PI / 2 * sinh(t))
+            double bound = isLeftInfinite ? rightBound : leftBound;
+            double direction = isLeftInfinite ? -1d : 1d;
+
+            return t -> {
+                double exp = Math.exp(Math.PI / 2 * Math.sinh(t));
+                double argument = bound + direction * exp;
+
+                if (argument == bound) {
+                    return Double.NaN;
+                }
+
+                return getTerm(argument, Math.PI / 2 * Math.cosh(t) * exp, t);
+            };
+        }
+
+        // x = centre + halfLength * tanh(PI / 2 * sinh(t)), the distance to the near bound is computed directly
+        double halfLength = (rightBound - leftBound) / 2;
+        double centre = leftBound + halfLength;
+
+        return t -> {
+            double u = Math.PI / 2 * Math.sinh(t);
+            double distance = halfLength * 2 / (1 + Math.exp(2 * Math.abs(u)));
+            double argument = t == 0d ? centre : t < 0 ? leftBound + distance : rightBound - distance;
+
+            if (argument <= leftBound || argument >= rightBound) {
+                return Double.NaN;
+            }
+
+            double cosh = Math.cosh(u);
+            return getTerm(argument, halfLength * Math.PI / 2 * Math.cosh(t) / (cosh * cosh), t);
+        };
+    }
+
+    private static double asinh(double value) {
+        return Math.log(value + Math.sqrt(value * value + 1));
+    }
+
+    private interface Transformation {
+        // weighted value of the function at the node of t, NaN cuts the tail
+        double getTerm(double t) throws NotAllowedScopeException;
+    }
+}
@@ -0,0 +1,323 @@
+import exception.InvalidFormulaException;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class FormulaFunction implements TaylorFunction {
+    static private final int FORMULAS_CAPACITY = 1024;
+    // evaluation stack of the thread, shared by every formula: a program never calls another one
+    static private final ThreadLocal<double[]> STACKS = ThreadLocal.withInitial(() -> new double[16]);
+    // least recently used formulas go first, so formulas of batch lines and requests can't fill the memory
+    static private final Map<String, FormulaFunction> FORMULAS =
+            new LinkedHashMap<String, FormulaFunction>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, FormulaFunction> eldest) {
+                    return size() > FORMULAS_CAPACITY;
+                }
+            };
+
+    private final String formula;
+    private final FormulaNode node;
+    private final int[] code;
+    private final double[] constants;
+    private final int stackSize;
+    // derivatives are built once, so their identity is stable for the caches keyed by function
+    private volatile Function derivative2;
+    private volatile Function derivative4;
+
+    private FormulaFunction(String formula, FormulaNode node) {
+        Program program = new Program();
+
+        this.formula = formula;
+        this.node = node;
+        this.stackSize = node.compile(program);
+        this.code = program.getCode();
+        this.constants = program.getConstants();
+    }
+
+    // recent formulas are compiled once and shared by their text, parsing goes outside of the lock
+    public static FormulaFunction of(String formula) throws InvalidFormulaException {
+        String key = formula.trim();
+        FormulaFunction function;
+
+        synchronized (FORMULAS) {
+            function = FORMULAS.get(key);
+        }
+
+        if (function == null) {
+            function = new FormulaFunction(key, FormulaParser.parse(key));
+
+            synchronized (FORMULAS) {
+                FormulaFunction previous = FORMULAS.putIfAbsent(key, function);
+
+                if (previous != null) {
+                    function = previous;
+                }
+            }
+        }
+
+        return function;
+    }
+
+    @Override
+    public Function get2Derivative() {
+        Function derivative = derivative2;
+
+        if (derivative == null) {
+            derivative = getDerivative(2);
+            derivative2 = derivative;
+        }
+
+        return derivative;
+    }
+
+    @Override
+    public Function get4Derivative() {
+        Function derivative = derivative4;
+
+        if (derivative == null) {
+            derivative = getDerivative(4);
+            derivative4 = derivative;
+        }
+
+        return derivative;
+    }
+
+    @Override
+    public double get(double argument) {
+        double[] stack = STACKS.get();
+        if (stack.length < stackSize) {
+            stack = new double[stackSize];
+            STACKS.set(stack);
+        }
+
+        int top = -1;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            int operation = code[pc];
+
+            switch (operation) {
+                case FormulaNode.PUSH_CONSTANT:
+                    stack[++top] = constants[code[++pc]];
+                    break;
+                case FormulaNode.PUSH_ARGUMENT:
+                    stack[++top] = argument;
+                    break;
+                case FormulaNode.ADD:
+                    top--;
+                    stack[top] += stack[top + 1];
+                    break;
+                case FormulaNode.SUBTRACT:
+                    top--;
+                    stack[top] -= stack[top + 1];
+                    break;
+                case FormulaNode.MULTIPLY:
+                    top--;
+                    stack[top] *= stack[top + 1];
+                    break;
+                case FormulaNode.DIVIDE:
+                    top--;
+                    stack[top] /= stack[top + 1];
+                    break;
+                case FormulaNode.POWER:
+                    top--;
+                    stack[top] = Math.pow(stack[top], stack[top + 1]);
+                    break;
+                case FormulaNode.INTEGER_POWER:
+                    stack[top] = FormulaNode.pow(stack[top], code[++pc]);
+                    break;
+                default:
+                    if ((operation & FormulaNode.CONSTANT_OPERAND) != 0) {
+                        stack[top] = FormulaNode.apply(
+                                operation & ~FormulaNode.CONSTANT_OPERAND, stack[top], constants[code[++pc]]
+                        );
+                    } else {
+                        stack[top] = FormulaNode.apply(operation, stack[top]);
+                    }
+                    break;
+            }
+        }
+
+        return stack[0];
+    }
+
+    // runs every instruction over the whole block, so the dispatch cost is paid once per block
+    @Override
+    public void get(double[] arguments, double[] values, int count) {
+        double[][] stack = new double[stackSize][];
+        stack[0] = values;
+        for (int i = 1; i < stackSize; i++) {
+            stack[i] = new double[count];
+        }
+
+        int top = -1;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            int operation = code[pc];
+
+            switch (operation) {
+                case FormulaNode.PUSH_CONSTANT:
+                    Arrays.fill(stack[++top], 0, count, constants[code[++pc]]);
+                    break;
+                case FormulaNode.PUSH_ARGUMENT:
+                    System.arraycopy(arguments, 0, stack[++top], 0, count);
+                    break;
+                case FormulaNode.INTEGER_POWER: {
+                    double[] operand = stack[top];
+                    int exponent = code[++pc];
+
+                    if (exponent == 2) {
+                        for (int i = 0; i < count; i++) {
+                            operand[i] *= operand[i];
+                        }
+                    } else if (exponent == 3) {
+                        for (int i = 0; i < count; i++) {
+                            operand[i] *= operand[i] * operand[i];
+                        }
+                    } else if (exponent == 4) {
+                        for (int i = 0; i < count; i++) {
+                            double square = operand[i] * operand[i];
+                            operand[i] = square * square;
+                        }
+                    } else {
+                        for (int i = 0; i < count; i++) {
+                            operand[i] = FormulaNode.pow(operand[i], exponent);
+                        }
+                    }
+                    break;
+                }
+                case FormulaNode.ADD:
+                case FormulaNode.SUBTRACT:
+                case FormulaNode.MULTIPLY:
+                case FormulaNode.DIVIDE:
+                case FormulaNode.POWER:
+                    top--;
+                    applyBinary(operation, stack[top], stack[top + 1], count);
+                    break;
+                default: {
+                    double[] operand = stack[top];
+
+                    if ((operation & FormulaNode.CONSTANT_OPERAND) != 0) {
+                        applyBinary(operation & ~FormulaNode.CONSTANT_OPERAND, operand, constants[code[++pc]], count);
+                    } else {
+                        for (int i = 0; i < count; i++) {
+                            operand[i] = FormulaNode.apply(operation, operand[i]);
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public Interval[] getNotAllowedScope() {
+        return new Interval[0];
+    }
+
+    // derivatives are only needed by the estimate of sections count, so the tree is walked directly
+    @Override
+    public TaylorNumber get(TaylorNumber argument) {
+        return node.evaluate(argument);
+    }
+
+    @Override
+    public String toString() {
+        return "y = " + formula;
+    }
+
+    private static void applyBinary(int operation, double[] left, double[] right, int count) {
+        switch (operation) {
+            case FormulaNode.ADD:
+                for (int i = 0; i < count; i++) {
+                    left[i] += right[i];
+                }
+                break;
+            case FormulaNode.SUBTRACT:
+                for (int i = 0; i < count; i++) {
+                    left[i] -= right[i];
+                }
+                break;
+            case FormulaNode.MULTIPLY:
+                for (int i = 0; i < count; i++) {
+                    left[i] *= right[i];
+                }
+                break;
+            case FormulaNode.DIVIDE:
+                for (int i = 0; i < count; i++) {
+                    left[i] /= right[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < count; i++) {
+                    left[i] = FormulaNode.apply(operation, left[i], right[i]);
+                }
+                break;
+        }
+    }
+
+    private static void applyBinary(int operation, double[] left, double right, int count) {
+        switch (operation) {
+            case FormulaNode.ADD:
+                for (int i = 0; i < count; i++) {
+                    left[i] += right;
+                }
+                break;
+            case FormulaNode.SUBTRACT:
+                for (int i = 0; i < count; i++) {
+                    left[i] -= right;
+                }
+                break;
+            case FormulaNode.MULTIPLY:
+                for (int i = 0; i < count; i++) {
+                    left[i] *= right;
+                }
+                break;
+            case FormulaNode.DIVIDE:
+                for (int i = 0; i < count; i++) {
+                    left[i] /= right;
+                }
+                break;
+            default:
+                for (int i = 0; i < count; i++) {
+                    left[i] = FormulaNode.apply(operation, left[i], right);
+                }
+                break;
+        }
+    }
+
+    static class Program {
+        private int[] code = new int[16];
+        private int codeLength = 0;
+        private double[] constants = new double[4];
+        private int constantsLength = 0;
+
+        void add(int... instruction) {
+            for (int value : instruction) {
+                if (codeLength == code.length) {
+                    code = Arrays.copyOf(code, code.length * 2);
+                }
+
+                code[codeLength++] = value;
+            }
+        }
+
+        int addConstant(double value) {
+            if (constantsLength == constants.length) {
+                constants = Arrays.copyOf(constants, constants.length * 2);
+            }
+
+            constants[constantsLength] = value;
+            return constantsLength++;
+        }
+
+        int[] getCode() {
+            return Arrays.copyOf(code, codeLength);
+        }
+
+        double[] getConstants() {
+            return Arrays.copyOf(constants, constantsLength);
+        }
+    }
+}
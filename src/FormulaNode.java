@@ -0,0 +1,319 @@
+public abstract class FormulaNode {
+    // opcodes of the postfix program, see FormulaFunction
+    static final int PUSH_CONSTANT = 0;
+    static final int PUSH_ARGUMENT = 1;
+    static final int ADD = 2;
+    static final int SUBTRACT = 3;
+    static final int MULTIPLY = 4;
+    static final int DIVIDE = 5;
+    static final int NEGATE = 6;
+    static final int POWER = 7;
+    static final int INTEGER_POWER = 8;
+    static final int SIN = 9;
+    static final int COS = 10;
+    static final int TAN = 11;
+    static final int EXP = 12;
+    static final int LN = 13;
+    static final int SQRT = 14;
+    static final int ABS = 15;
+    // flag of a binary operation whose right operand is the constant that follows the opcode
+    static final int CONSTANT_OPERAND = 0x100;
+
+    static private final int INTEGER_POWER_MAX_VALUE = 64;
+
+    public boolean isConstant() {
+        return false;
+    }
+
+    public abstract double evaluate(double argument);
+
+    public abstract TaylorNumber evaluate(TaylorNumber argument);
+
+    // appends postfix code of the node and returns the stack depth it needs
+    abstract int compile(FormulaFunction.Program program);
+
+    public static FormulaNode constant(double value) {
+        return new Constant(value);
+    }
+
+    public static FormulaNode argument() {
+        return new Argument();
+    }
+
+    public static FormulaNode unary(int operation, FormulaNode operand) {
+        return fold(new Unary(operation, operand));
+    }
+
+    public static FormulaNode binary(int operation, FormulaNode left, FormulaNode right) {
+        if (operation == POWER && right.isConstant()) {
+            double exponent = right.evaluate(0d);
+
+            if (exponent == Math.rint(exponent) && Math.abs(exponent) <= INTEGER_POWER_MAX_VALUE) {
+                return fold(new IntegerPower(left, (int) exponent));
+            }
+        }
+
+        return fold(new Binary(operation, left, right));
+    }
+
+    private static FormulaNode fold(FormulaNode node) {
+        return node.isConstant() ? new Constant(node.evaluate(0d)) : node;
+    }
+
+    static double apply(int operation, double value) {
+        switch (operation) {
+            case NEGATE:
+                return -value;
+            case SIN:
+                return Math.sin(value);
+            case COS:
+                return Math.cos(value);
+            case TAN:
+                return Math.tan(value);
+            case EXP:
+                return Math.exp(value);
+            case LN:
+                return Math.log(value);
+            case SQRT:
+                return Math.sqrt(value);
+            case ABS:
+                return Math.abs(value);
+            default:
+                throw new IllegalArgumentException("Unknown unary operation " + operation);
+        }
+    }
+
+    static double apply(int operation, double left, double right) {
+        switch (operation) {
+            case ADD:
+                return left + right;
+            case SUBTRACT:
+                return left - right;
+            case MULTIPLY:
+                return left * right;
+            case DIVIDE:
+                return left / right;
+            case POWER:
+                return Math.pow(left, right);
+            default:
+                throw new IllegalArgumentException("Unknown binary operation " + operation);
+        }
+    }
+
+    static TaylorNumber apply(int operation, TaylorNumber value) {
+        switch (operation) {
+            case NEGATE:
+                return value.negate();
+            case SIN:
+                return value.sin();
+            case COS:
+                return value.cos();
+            case TAN:
+                return value.tan();
+            case EXP:
+                return value.exp();
+            case LN:
+                return value.ln();
+            case SQRT:
+                return value.sqrt();
+            case ABS:
+                return value.abs();
+            default:
+                throw new IllegalArgumentException("Unknown unary operation " + operation);
+        }
+    }
+
+    static TaylorNumber apply(int operation, TaylorNumber left, TaylorNumber right) {
+        switch (operation) {
+            case ADD:
+                return left.add(right);
+            case SUBTRACT:
+                return left.subtract(right);
+            case MULTIPLY:
+                return left.multiply(right);
+            case DIVIDE:
+                return left.divide(right);
+            case POWER:
+                return left.pow(right);
+            default:
+                throw new IllegalArgumentException("Unknown binary operation " + operation);
+        }
+    }
+
+    // exponentiation by squaring, so x^2 is a single multiplication
+    static double pow(double value, int exponent) {
+        double base = exponent < 0 ? 1d / value : value;
+        double res = 1d;
+
+        for (int n = Math.abs(exponent); n != 0; n >>>= 1) {
+            if ((n & 1) != 0) {
+                res *= base;
+            }
+
+            base *= base;
+        }
+
+        return res;
+    }
+
+    private static class Constant extends FormulaNode {
+        private final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return true;
+        }
+
+        @Override
+        public double evaluate(double argument) {
+            return value;
+        }
+
+        @Override
+        public TaylorNumber evaluate(TaylorNumber argument) {
+            return TaylorNumber.constant(value);
+        }
+
+        @Override
+        int compile(FormulaFunction.Program program) {
+            program.add(PUSH_CONSTANT, program.addConstant(value));
+            return 1;
+        }
+    }
+
+    private static class Argument extends FormulaNode {
+        @Override
+        public double evaluate(double argument) {
+            return argument;
+        }
+
+        @Override
+        public TaylorNumber evaluate(TaylorNumber argument) {
+            return argument;
+        }
+
+        @Override
+        int compile(FormulaFunction.Program program) {
+            program.add(PUSH_ARGUMENT);
+            return 1;
+        }
+    }
+
+    private static class Unary extends FormulaNode {
+        private final int operation;
+        private final FormulaNode operand;
+
+        Unary(int operation, FormulaNode operand) {
+            this.operation = operation;
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return operand.isConstant();
+        }
+
+        @Override
+        public double evaluate(double argument) {
+            return apply(operation, operand.evaluate(argument));
+        }
+
+        @Override
+        public TaylorNumber evaluate(TaylorNumber argument) {
+            return apply(operation, operand.evaluate(argument));
+        }
+
+        @Override
+        int compile(FormulaFunction.Program program) {
+            int depth = operand.compile(program);
+            program.add(operation);
+            return depth;
+        }
+    }
+
+    private static class IntegerPower extends FormulaNode {
+        private final FormulaNode base;
+        private final int exponent;
+
+        IntegerPower(FormulaNode base, int exponent) {
+            this.base = base;
+            this.exponent = exponent;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return base.isConstant();
+        }
+
+        @Override
+        public double evaluate(double argument) {
+            return pow(base.evaluate(argument), exponent);
+        }
+
+        @Override
+        public TaylorNumber evaluate(TaylorNumber argument) {
+            return base.evaluate(argument).pow(exponent);
+        }
+
+        @Override
+        int compile(FormulaFunction.Program program) {
+            int depth = base.compile(program);
+            program.add(INTEGER_POWER, exponent);
+            return depth;
+        }
+    }
+
+    private static class Binary extends FormulaNode {
+        private final int operation;
+        private final FormulaNode left;
+        private final FormulaNode right;
+
+        Binary(int operation, FormulaNode left, FormulaNode right) {
+            this.operation = operation;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return left.isConstant() && right.isConstant();
+        }
+
+        @Override
+        public double evaluate(double argument) {
+            return apply(operation, left.evaluate(argument), right.evaluate(argument));
+        }
+
+        @Override
+        public TaylorNumber evaluate(TaylorNumber argument) {
+            if (operation == POWER && right.isConstant()) {
+                return left.evaluate(argument).pow(right.evaluate(0d));
+            }
+
+            return apply(operation, left.evaluate(argument), right.evaluate(argument));
+        }
+
+        @Override
+        int compile(FormulaFunction.Program program) {
+            boolean isCommutative = operation == ADD || operation == MULTIPLY;
+
+            if (right.isConstant() || (isCommutative && left.isConstant())) {
+                FormulaNode variable = right.isConstant() ? left : right;
+                FormulaNode constant = right.isConstant() ? right : left;
+
+                int depth = variable.compile(program);
+                program.add(operation | CONSTANT_OPERAND, program.addConstant(constant.evaluate(0d)));
+                return depth;
+            }
+
+            int leftDepth = left.compile(program);
+            int rightDepth = right.compile(program);
+            program.add(operation);
+            return Math.max(leftDepth, rightDepth + 1);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+import exception.InvalidFormulaException;
+
+/*
+ * expression := term (('+' | '-') term)*
+ * term       := unary (('*' | '/') unary)*
+ * unary      := ('+' | '-') unary | power
+ * power      := primary ('^' unary)?
+ * primary    := number | 'x' | 'pi' | 'e' | function '(' expression ')' | '(' expression ')'
+ */
+public class FormulaParser {
+    private final String text;
+    private int position = 0;
+
+    private FormulaParser(String text) {
+        this.text = text;
+    }
+
+    public static FormulaNode parse(String text) throws InvalidFormulaException {
+        FormulaParser parser = new FormulaParser(text);
+        FormulaNode node = parser.parseExpression();
+
+        parser.skipSpaces();
+        if (parser.position != text.length()) {
+            throw parser.error("Unexpected symbol");
+        }
+
+        return node;
+    }
+
+    private FormulaNode parseExpression() throws InvalidFormulaException {
+        FormulaNode node = parseTerm();
+
+        while (true) {
+            if (consume('+')) {
+                node = FormulaNode.binary(FormulaNode.ADD, node, parseTerm());
+            } else if (consume('-')) {
+                node = FormulaNode.binary(FormulaNode.SUBTRACT, node, parseTerm());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private FormulaNode parseTerm() throws InvalidFormulaException {
+        FormulaNode node = parseUnary();
+
+        while (true) {
+            if (consume('*')) {
+                node = FormulaNode.binary(FormulaNode.MULTIPLY, node, parseUnary());
+            } else if (consume('/')) {
+                node = FormulaNode.binary(FormulaNode.DIVIDE, node, parseUnary());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private FormulaNode parseUnary() throws InvalidFormulaException {
+        if (consume('+')) {
+            return parseUnary();
+        }
+
+        if (consume('-')) {
+            return FormulaNode.unary(FormulaNode.NEGATE, parseUnary());
+        }
+
+        return parsePower();
+    }
+
+    private FormulaNode parsePower() throws InvalidFormulaException {
+        FormulaNode node = parsePrimary();
+
+        if (consume('^')) {
+            return FormulaNode.binary(FormulaNode.POWER, node, parseUnary());
+        }
+
+        return node;
+    }
+
+    private FormulaNode parsePrimary() throws InvalidFormulaException {
+        skipSpaces();
+
+        if (consume('(')) {
+            FormulaNode node = parseExpression();
+            expect(')');
+            return node;
+        }
+
+        if (position < text.length() && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+            return FormulaNode.constant(parseNumber());
+        }
+
+        String name = parseName();
+
+        switch (name) {
+            case "x":
+                return FormulaNode.argument();
+            case "pi":
+                return FormulaNode.constant(Math.PI);
+            case "e":
+                return FormulaNode.constant(Math.E);
+            case "sin":
+                return parseFunction(FormulaNode.SIN);
+            case "cos":
+                return parseFunction(FormulaNode.COS);
+            case "tan":
+                return parseFunction(FormulaNode.TAN);
+            case "exp":
+                return parseFunction(FormulaNode.EXP);
+            case "ln":
+            case "log":
+                return parseFunction(FormulaNode.LN);
+            case "sqrt":
+                return parseFunction(FormulaNode.SQRT);
+            case "abs":
+                return parseFunction(FormulaNode.ABS);
+            case "":
+                throw error("Expected operand");
+            default:
+                throw error("Unknown name '" + name + "'");
+        }
+    }
+
+    private FormulaNode parseFunction(int operation) throws InvalidFormulaException {
+        expect('(');
+        FormulaNode node = parseExpression();
+        expect(')');
+
+        return FormulaNode.unary(operation, node);
+    }
+
+    private double parseNumber() throws InvalidFormulaException {
+        int start = position;
+
+        while (position < text.length()
+                && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+            position++;
+        }
+
+        if (position < text.length() && (text.charAt(position) == 'e' || text.charAt(position) == 'E')) {
+            int exponentStart = position++;
+
+            if (position < text.length() && (text.charAt(position) == '+' || text.charAt(position) == '-')) {
+                position++;
+            }
+
+            if (position < text.length() && Character.isDigit(text.charAt(position))) {
+                while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                    position++;
+                }
+            } else {
+                // not an exponent, leave 'e' to the caller
+                position = exponentStart;
+            }
+        }
+
+        try {
+            return Double.parseDouble(text.substring(start, position));
+        } catch (NumberFormatException e) {
+            throw error("Bad number");
+        }
+    }
+
+    private String parseName() {
+        int start = position;
+
+        while (position < text.length() && Character.isLetter(text.charAt(position))) {
+            position++;
+        }
+
+        return text.substring(start, position).toLowerCase();
+    }
+
+    private boolean consume(char symbol) {
+        skipSpaces();
+
+        if (position < text.length() && text.charAt(position) == symbol) {
+            position++;
+            return true;
+        }
+
+        return false;
+    }
+
+    private void expect(char symbol) throws InvalidFormulaException {
+        if (!consume(symbol)) {
+            throw error("Expected '" + symbol + "'");
+        }
+    }
+
+    private void skipSpaces() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private InvalidFormulaException error(String reason) {
+        return new InvalidFormulaException(reason + " at position " + position + " of '" + text + "'");
+    }
+}
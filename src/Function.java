@@ -1,40 +1,83 @@
 import exception.NotAllowedScopeException;
 import exception.NotImplementedMethodException;
 
+import java.util.concurrent.ForkJoinPool;
+
 public interface Function {
     double EPS = 1e-9d;
     double DOUBLE_MAX_VALUE = 1e30d;
+    double NOT_COUNTABLE_VALUE = Double.NaN;
 
     default double getValue(double argument) throws NotAllowedScopeException {
-        double res = get(argument);
+        double res = getCountableValue(argument);
 
-        if (isCountableValue(res)) {
-            return res;
+        if (Double.isNaN(res)) {
+            throw new NotAllowedScopeException();
         }
 
-        res = (get(argument - EPS) + get(argument + EPS)) / 2;
+        return res;
+    }
 
-        if (isCountableValue(res)) {
-            return res;
+    default double getCountableValue(double argument) {
+        if (ReimannSumStatistics.ENABLED) {
+            ReimannSumStatistics.addEvaluations(1L);
         }
 
-        res = get(argument - EPS);
+        return getCountableValue(argument, get(argument));
+    }
 
-        if (isCountableValue(res)) {
-            return res;
+    // value is get(argument), already computed by the caller; NOT_COUNTABLE_VALUE if no fallback helps
+    default double getCountableValue(double argument, double value) {
+        if (isCountableValue(value)) {
+            return value;
         }
 
-        res = get(argument + EPS);
+        if (ReimannSumStatistics.ENABLED) {
+            ReimannSumStatistics.addFallback();
+            ReimannSumStatistics.addEvaluations(2L);
+        }
+
+        double leftValue = get(argument - EPS);
+        double rightValue = get(argument + EPS);
+        double res = (leftValue + rightValue) / 2;
 
         if (isCountableValue(res)) {
             return res;
         }
 
-        throw new NotAllowedScopeException();
+        if (isCountableValue(leftValue)) {
+            return leftValue;
+        }
+
+        if (isCountableValue(rightValue)) {
+            return rightValue;
+        }
+
+        return NOT_COUNTABLE_VALUE;
     }
 
     double get(double argument);
 
+    default void get(double[] arguments, double[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = get(arguments[i]);
+        }
+    }
+
+    default void getValues(double[] arguments, double[] values, int count) {
+        if (ReimannSumStatistics.ENABLED) {
+            ReimannSumStatistics.addEvaluations(count);
+        }
+
+        get(arguments, values, count);
+
+        for (int i = 0; i < count; i++) {
+            if (!isCountableValue(values[i])) {
+                values[i] = getCountableValue(arguments[i], values[i]);
+            }
+        }
+    }
+
     default boolean isCountableValue(double value) {
         if (Double.isNaN(value)) {
             return false;
@@ -48,21 +91,29 @@ public interface Function {
     }
 
     Interval[] getNotAllowedScope();
+
+    default ScopeIndex getScopeIndex() {
+        return ScopeIndex.of(this);
+    }
+
+    // how the excluded points inside of bounds are integrated, see SingularitySplitter
+    default TypeOfSingularity getSingularityType() {
+        return TypeOfSingularity.REMOVABLE_SINGULARITY;
+    }
+
     Function get2Derivative() throws NotImplementedMethodException;
     Function get4Derivative() throws NotImplementedMethodException;
 
     default double getMaxValue(Bounds bounds) throws NotAllowedScopeException {
-        int countOfSections = Math.min((int) (Math.abs(bounds.getLength()) * 10000), 1_000_000);
-
-        double maximum = 0d;
-        double step = bounds.getLength() / countOfSections;
-        double curLeftBound = bounds.getLeftBound();
+        return getMaxValue(bounds, TypeOfExecution.SEQUENTIAL_EXECUTION);
+    }
 
-        for (int i = 0; i < countOfSections; i++) {
-            maximum = Math.max(maximum, Math.abs(getValue(curLeftBound)));
-            curLeftBound += step;
-        }
+    default double getMaxValue(Bounds bounds, TypeOfExecution executionType) throws NotAllowedScopeException {
+        return getMaxValue(bounds, executionType, ForkJoinPool.commonPool());
+    }
 
-        return maximum;
+    default double getMaxValue(Bounds bounds, TypeOfExecution executionType, ForkJoinPool pool)
+            throws NotAllowedScopeException {
+        return new MaxValueEstimator(executionType, pool).getMaxValue(this, bounds);
     }
 }
@@ -0,0 +1,147 @@
+import exception.NotSolvableIntegralException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Tensor product of composite Gauss-Legendre rules: every coordinate is cut into the same count of panels
+ * with one order of the rule on each. The order doubles up to ORDER_MAX_VALUE, then the count of panels does,
+ * until two results agree. The cost is (order * panels)^dimension: a rule for low dimensions.
+ */
+public class GaussLegendreCubature {
+    static private final int ORDER_MIN_VALUE = 2;
+    // tables cost order^2 to build and stay cached, so higher orders give way to more panels
+    static private final int ORDER_MAX_VALUE = 64;
+    static private final long POINTS_MAX_VALUE = 50_000_000L;
+    // nodes of the first coordinate are summed in at most this count of parallel slices
+    static private final int SLICES_MAX_COUNT = 64;
+
+    private final MultivariateFunction function;
+    private final Box box;
+    private final ForkJoinPool pool;
+
+    public GaussLegendreCubature(MultivariateFunction function, Box box, ForkJoinPool pool) {
+        this.function = function;
+        this.box = box;
+        this.pool = pool;
+    }
+
+    public ReimannSumAnswer getAnswer(double accuracy, IntegrationBudget budget)
+            throws NotSolvableIntegralException {
+        double value = Double.NaN;
+        double error = Double.NaN;
+        long evaluationsCount = 0L;
+        int order = ORDER_MIN_VALUE;
+        int panelsCount = 1;
+
+        while (true) {
+            long pointsCount = getPointsCount((long) order * panelsCount);
+
+            if (pointsCount > POINTS_MAX_VALUE) {
+                throw new NotSolvableIntegralException();
+            }
+
+            // checked before the table of the next order is built
+            if (evaluationsCount != 0L && budget.isExhausted(evaluationsCount + pointsCount)) {
+                return new ReimannSumAnswer(value, error, order * panelsCount, evaluationsCount, 0, false);
+            }
+
+            double prevValue = value;
+            value = getSum(GaussLegendreTable.of(order), panelsCount);
+            evaluationsCount += pointsCount;
+
+            if (!function.isCountableValue(value)) {
+                throw new NotSolvableIntegralException();
+            }
+
+            if (!Double.isNaN(prevValue)) {
+                error = Math.abs(value - prevValue);
+
+                if (error < accuracy) {
+                    return new ReimannSumAnswer(value, error, order * panelsCount, evaluationsCount);
+                }
+            }
+
+            if (order < ORDER_MAX_VALUE) {
+                order *= 2;
+            } else {
+                panelsCount *= 2;
+            }
+        }
+    }
+
+    private long getPointsCount(long nodesCount) {
+        long res = 1L;
+
+        for (int i = 0; i < box.getDimension() && res <= POINTS_MAX_VALUE; i++) {
+            res *= nodesCount;
+        }
+
+        return res;
+    }
+
+    // slices of the first coordinate run in parallel and are added in order, so the result does not depend on the pool
+    private double getSum(GaussLegendreTable table, int panelsCount) {
+        int nodesCount = table.getOrder() * panelsCount;
+        int slicesCount = Math.min(nodesCount, SLICES_MAX_COUNT);
+        List<ForkJoinTask<Double>> slices = new ArrayList<>();
+
+        for (int i = 0; i < slicesCount; i++) {
+            int from = (int) ((long) nodesCount * i / slicesCount);
+            int to = (int) ((long) nodesCount * (i + 1) / slicesCount);
+            slices.add(pool.submit(() -> getSlice(table, panelsCount, from, to)));
+        }
+
+        double res = 0d;
+        for (ForkJoinTask<Double> slice : slices) {
+            res += slice.join();
+        }
+
+        for (int k = 0; k < box.getDimension(); k++) {
+            res *= box.getLength(k) / panelsCount / 2;
+        }
+
+        return res;
+    }
+
+    // weighted sum over every node with the node of the first coordinate from 'from' inclusive to 'to' exclusive
+    private double getSlice(GaussLegendreTable table, int panelsCount, int from, int to) {
+        int dimension = box.getDimension();
+        int order = table.getOrder();
+        int nodesCount = order * panelsCount;
+        int[] indexes = new int[dimension];
+        double[] arguments = new double[dimension];
+        double res = 0d;
+
+        indexes[0] = from;
+
+        while (true) {
+            double weight = 1d;
+
+            for (int k = 0; k < dimension; k++) {
+                // the node of the index is the node indexes[k] % order of the panel indexes[k] / order
+                double panelLength = box.getLength(k) / panelsCount;
+                int node = indexes[k] % order;
+
+                arguments[k] = box.getLeftBound(k) +
+                        panelLength * (indexes[k] / order + (1 + table.getNode(node)) / 2);
+                weight *= table.getWeight(node);
+            }
+
+            res += weight * function.get(arguments);
+
+            // the next node, like an odometer with the first coordinate limited by the slice
+            int k = dimension - 1;
+            while (k > 0 && ++indexes[k] == nodesCount) {
+                indexes[k] = 0;
+                k--;
+            }
+
+            if (k == 0 && ++indexes[0] == to) {
+                return res;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class GaussLegendreTable {
+    static private final ConcurrentMap<Integer, GaussLegendreTable> TABLES = new ConcurrentHashMap<>();
+    static private final double EPS = 1e-15d;
+    static private final int NEWTON_MAX_ITERATIONS = 100;
+
+    private final double[] nodes;
+    private final double[] weights;
+
+    private GaussLegendreTable(int order) {
+        nodes = new double[order];
+        weights = new double[order];
+
+        for (int i = 0; i < (order + 1) / 2; i++) {
+            double x = Math.cos(Math.PI * (i + 0.75d) / (order + 0.5d));
+
+            for (int iteration = 0; iteration < NEWTON_MAX_ITERATIONS; iteration++) {
+                double[] legendre = getLegendre(order, x);
+                double delta = legendre[0] / legendre[1];
+                x -= delta;
+
+                if (Math.abs(delta) < EPS) {
+                    break;
+                }
+            }
+
+            double derivative = getLegendre(order, x)[1];
+            double weight = 2 / ((1 - x * x) * derivative * derivative);
+
+            nodes[i] = -x;
+            nodes[order - 1 - i] = x;
+            weights[i] = weight;
+            weights[order - 1 - i] = weight;
+        }
+    }
+
+    // value and derivative of the Legendre polynomial of the given order
+    private static double[] getLegendre(int order, double x) {
+        double p0 = 1d;
+        double p1 = x;
+
+        for (int k = 2; k <= order; k++) {
+            double p2 = ((2 * k - 1) * x * p1 - (k - 1) * p0) / k;
+            p0 = p1;
+            p1 = p2;
+        }
+
+        return new double[]{p1, order * (x * p1 - p0) / (x * x - 1)};
+    }
+
+    public static GaussLegendreTable of(int order) {
+        if (order < 1) {
+            throw new IllegalArgumentException("Order of Gauss-Legendre rule should be positive!");
+        }
+
+        return TABLES.computeIfAbsent(order, GaussLegendreTable::new);
+    }
+
+    public int getOrder() {
+        return nodes.length;
+    }
+
+    // node on [-1; 1]
+    public double getNode(int index) {
+        return nodes[index];
+    }
+
+    public double getWeight(int index) {
+        return weights[index];
+    }
+}
@@ -0,0 +1,83 @@
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits of one integration: a deadline, a count of function evaluations and a cancellation token.
+ * The deadline is counted from the creation of the budget, so a budget serves a single call.
+ */
+public class IntegrationBudget {
+    public static final IntegrationBudget UNLIMITED = new IntegrationBudget(0L, TimeUnit.NANOSECONDS, 0L, null);
+
+    private final long deadline;
+    private final boolean hasDeadline;
+    private final long evaluationsLimit;
+    private final CancellationToken cancellationToken;
+
+    // timeout <= 0 means no deadline, evaluationsLimit <= 0 means no limit of evaluations, token may be null
+    public IntegrationBudget(long timeout, TimeUnit unit, long evaluationsLimit, CancellationToken cancellationToken) {
+        this(
+                timeout > 0L,
+                timeout > 0L ? System.nanoTime() + unit.toNanos(timeout) : 0L,
+                evaluationsLimit,
+                cancellationToken
+        );
+    }
+
+    private IntegrationBudget(
+            boolean hasDeadline,
+            long deadline,
+            long evaluationsLimit,
+            CancellationToken cancellationToken
+    ) {
+        this.hasDeadline = hasDeadline;
+        this.deadline = deadline;
+        this.evaluationsLimit = evaluationsLimit;
+        this.cancellationToken = cancellationToken;
+    }
+
+    public static IntegrationBudget ofTimeout(long timeout, TimeUnit unit) {
+        return new IntegrationBudget(timeout, unit, 0L, null);
+    }
+
+    public static IntegrationBudget ofEvaluations(long evaluationsLimit) {
+        return new IntegrationBudget(0L, TimeUnit.NANOSECONDS, evaluationsLimit, null);
+    }
+
+    public static IntegrationBudget of(CancellationToken cancellationToken) {
+        return new IntegrationBudget(0L, TimeUnit.NANOSECONDS, 0L, cancellationToken);
+    }
+
+    // evaluationsCount is the count the caller would reach by its next step
+    public boolean isExhausted(long evaluationsCount) {
+        return isCancelled() || isExpired() || !isAffordable(evaluationsCount);
+    }
+
+    public boolean isAffordable(long evaluationsCount) {
+        return evaluationsLimit <= 0L || evaluationsCount <= evaluationsLimit;
+    }
+
+    public boolean isCancelled() {
+        return cancellationToken != null && cancellationToken.isCancelled();
+    }
+
+    public boolean isExpired() {
+        return hasDeadline && System.nanoTime() - deadline >= 0L;
+    }
+
+    public long getEvaluationsLimit() {
+        return evaluationsLimit;
+    }
+
+    // a part of one integration: the same deadline and token, the given part of the evaluations
+    public IntegrationBudget getShare(double share) {
+        if (evaluationsLimit <= 0L) {
+            return this;
+        }
+
+        return new IntegrationBudget(
+                hasDeadline,
+                deadline,
+                Math.max(1L, (long) (evaluationsLimit * share)),
+                cancellationToken
+        );
+    }
+}
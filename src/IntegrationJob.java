@@ -0,0 +1,149 @@
+import exception.*;
+
+import java.util.Locale;
+
+/**
+ * One integral of a job line '<function>,<start_bound>,<end_bound>,<accuracy>[,<rule>[,<solution>]]'.
+ * Function is a number of the built-in function or a formula of x.
+ */
+public class IntegrationJob {
+    static private final ReimannSumRule DEFAULT_RULE = ReimannSumRule.TRAPEZOIDAL_RULE;
+    static private final TypeOfSolution DEFAULT_SOLUTION = TypeOfSolution.SOLUTION_BY_RUNGE;
+
+    private final Function function;
+    private final Bounds bounds;
+    private final double accuracy;
+    private final ReimannSumRule rule;
+    private final TypeOfSolution solutionType;
+
+    public IntegrationJob(
+            Function function,
+            Bounds bounds,
+            double accuracy,
+            ReimannSumRule rule,
+            TypeOfSolution solutionType
+    ) {
+        this.function = function;
+        this.bounds = bounds;
+        this.accuracy = accuracy;
+        this.rule = rule;
+        this.solutionType = solutionType;
+    }
+
+    // bad input is reported by IllegalArgumentException or InvalidFormulaException
+    public static IntegrationJob parse(String line, Function[] functions) throws InvalidFormulaException {
+        String[] fields = line.split(",");
+
+        if (fields.length < 4 || fields.length > 6) {
+            throw new IllegalArgumentException("expected 4 to 6 fields, got " + fields.length);
+        }
+
+        Function function = getFunction(fields[0].trim(), functions);
+        Bounds bounds = new Bounds(Double.parseDouble(fields[1].trim()), Double.parseDouble(fields[2].trim()));
+        double accuracy = Double.parseDouble(fields[3].trim());
+        ReimannSumRule rule = fields.length > 4 ? getRule(fields[4].trim()) : DEFAULT_RULE;
+        TypeOfSolution solutionType = fields.length > 5 ? getSolution(fields[5].trim()) : DEFAULT_SOLUTION;
+
+        if (!(accuracy > 0)) {
+            throw new IllegalArgumentException("accuracy should be positive");
+        }
+
+        return new IntegrationJob(function, bounds, accuracy, rule, solutionType);
+    }
+
+    public ReimannSumAnswer run(ReimannSum reimannSum) throws
+            NotImplementedMethodException,
+            UnknownReimannSumRuleException,
+            NotAllowedScopeException,
+            NotSolvableIntegralException {
+        return reimannSum.getReimannSum(function, bounds, accuracy, rule, solutionType);
+    }
+
+    public Function getFunction() {
+        return function;
+    }
+
+    public Bounds getBounds() {
+        return bounds;
+    }
+
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    public ReimannSumRule getRule() {
+        return rule;
+    }
+
+    public TypeOfSolution getSolutionType() {
+        return solutionType;
+    }
+
+    public static String getStatus(Throwable e) {
+        if (e instanceof NotImplementedMethodException) {
+            return "not implemented";
+        } else if (e instanceof NotSolvableIntegralException) {
+            return "not solvable";
+        } else if (e instanceof NotAllowedScopeException) {
+            return "not allowed scope";
+        } else if (e instanceof UnknownReimannSumRuleException) {
+            return "unknown rule";
+        } else {
+            return "failed: " + e;
+        }
+    }
+
+    public static String toJson(int lineNumber, ReimannSumAnswer answer) {
+        double error = answer.getMeasurementError();
+
+        return "{\"line\":" + lineNumber +
+                ",\"value\":" + toJson(answer.getValue()) +
+                ",\"measurement_error\":" + toJson(error) +
+                ",\"steps\":" + answer.getIterationsCount() +
+                ",\"status\":\"ok\"}";
+    }
+
+    public static String toJson(int lineNumber, String status) {
+        return "{\"line\":" + lineNumber +
+                ",\"value\":null,\"measurement_error\":null,\"steps\":null,\"status\":\"" +
+                status.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+
+    private static String toJson(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? "null" : String.valueOf(value);
+    }
+
+    private static Function getFunction(String field, Function[] functions) throws InvalidFormulaException {
+        if (field.matches("\\d+")) {
+            int number = Integer.parseInt(field);
+
+            if (number < 1 || number > functions.length) {
+                throw new IllegalArgumentException("unknown function " + number);
+            }
+
+            return functions[number - 1];
+        }
+
+        return FormulaFunction.of(field);
+    }
+
+    // accepts both full names and short ones: 'SIMPSONS_RULE' or 'simpsons', 'SOLUTION_BY_RUNGE' or 'runge'
+    private static ReimannSumRule getRule(String field) {
+        String name = field.toUpperCase(Locale.ROOT);
+        return ReimannSumRule.valueOf(name.endsWith("_RULE") ? name : name + "_RULE");
+    }
+
+    private static TypeOfSolution getSolution(String field) {
+        String name = field.toUpperCase(Locale.ROOT);
+
+        for (TypeOfSolution solutionType : TypeOfSolution.values()) {
+            String type = solutionType.name();
+
+            if (type.equals(name) || type.equals("SOLUTION_BY_" + name) || type.equals("SOLUTION_" + name)) {
+                return solutionType;
+            }
+        }
+
+        throw new IllegalArgumentException("unknown solution " + field);
+    }
+}
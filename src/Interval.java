@@ -27,55 +27,70 @@ public class Interval extends Bounds {
         this(point, point);
     }
 
+    public boolean isLeftIncluded() {
+        return isLeftIncluded;
+    }
+
+    public boolean isRightIncluded() {
+        return isRightIncluded;
+    }
+
     public boolean isPoint() {
         return Math.abs(getRightBound() - getLeftBound()) < EPS;
     }
 
+    // bounds are treated as an open interval, an empty one intersects nothing
     public boolean isIntersect(Bounds that) {
-        try {
-            return isIntersect(
-                    new Interval(
-                            Math.min(that.getLeftBound(), that.getRightBound()), false,
-                            Math.max(that.getLeftBound(), that.getRightBound()), false
-                    )
-            );
-        } catch (InvalidIntervalException e) {
-            System.err.println(e);
-            System.err.println("Unavailable code!");
+        double thatLeftBound = Math.min(that.getLeftBound(), that.getRightBound());
+        double thatRightBound = Math.max(that.getLeftBound(), that.getRightBound());
+
+        if (Math.abs(thatRightBound - thatLeftBound) < EPS) {
             return false;
         }
+
+        return isIntersect(thatLeftBound, false, thatRightBound, false);
     }
 
     public boolean isIntersect(Interval that) {
-        if (this.getLeftBound() + EPS < that.getLeftBound()) {
-            if (this.getRightBound() + EPS < that.getLeftBound()) {
+        return isIntersect(that.getLeftBound(), that.isLeftIncluded, that.getRightBound(), that.isRightIncluded);
+    }
+
+    private boolean isIntersect(
+            double thatLeftBound,
+            boolean isThatLeftIncluded,
+            double thatRightBound,
+            boolean isThatRightIncluded
+    ) {
+        if (this.getLeftBound() + EPS < thatLeftBound) {
+            if (this.getRightBound() + EPS < thatLeftBound) {
                 return false;
             }
 
-            if (Math.abs(this.getRightBound() - that.getLeftBound()) < EPS
-                    && that.isLeftIncluded && this.isRightIncluded) {
-                return true;
+            // touching ends intersect only if both of them are included
+            if (Math.abs(this.getRightBound() - thatLeftBound) < EPS) {
+                return isThatLeftIncluded && this.isRightIncluded;
             }
 
-            return this.getRightBound() + EPS > that.getLeftBound();
-        } else if (Math.abs(this.getLeftBound() - that.getLeftBound()) < EPS) {
-            if (this.isLeftIncluded && that.isLeftIncluded) {
+            return this.getRightBound() + EPS > thatLeftBound;
+        } else if (Math.abs(this.getLeftBound() - thatLeftBound) < EPS) {
+            if (this.isLeftIncluded && isThatLeftIncluded) {
                 return true;
             }
 
-            return (!this.isPoint() || that.isLeftIncluded)
-                    && (!that.isPoint() || that.isRightIncluded);
+            boolean isThatPoint = Math.abs(thatRightBound - thatLeftBound) < EPS;
+
+            return (!this.isPoint() || isThatLeftIncluded)
+                    && (!isThatPoint || isThatRightIncluded);
         } else {
-            if (that.getRightBound() + EPS < this.getLeftBound()) {
+            if (thatRightBound + EPS < this.getLeftBound()) {
                 return false;
             }
 
-            if (Math.abs(that.getRightBound() - this.getLeftBound()) < EPS
-                    && this.isLeftIncluded && that.isRightIncluded) {
-                return true;
+            if (Math.abs(thatRightBound - this.getLeftBound()) < EPS) {
+                return this.isLeftIncluded && isThatRightIncluded;
             }
 
-            return that.getRightBound() + EPS > this.getLeftBound();
+            return thatRightBound + EPS > this.getLeftBound();
         }
     }
 
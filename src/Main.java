@@ -1,5 +1,14 @@
 import exception.*;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 public class Main {
@@ -9,8 +18,12 @@ public class Main {
     private static final String HELP_MESSAGE =
                     "Supported Commands:\n" +
                     "Use 'choose <number of function>' to select function\n" +
+                    "Use 'formula <formula of x>' to enter function, e.g. 'formula 0.1*x^4 + 0.2*x^2 - 7'\n" +
                     "Use 'exit' to quit\n" +
                     "Use 'help' to see this text\n" +
+                    "Run with '--batch [file] [--json] [--threads <count>]' to integrate job lines\n" +
+                    "'<function>,<start_bound>,<end_bound>,<accuracy>[,<rule>[,<solution>]]' without dialog\n" +
+                    "Run with '--server [port]' to answer job lines at http://127.0.0.1:<port>/integrate\n" +
                     "Supported Functions:\n" +
                     "1)y = x\n" +
                     "2)y = sqrt(x)\n" +
@@ -25,14 +38,174 @@ public class Main {
             "Enter the accuracy. It should be more than 0.000001: ";
 
     private static final double EPS = 1e-6;
+    private static final int DEFAULT_SERVER_PORT = 8080;
 
     public static void main(String[] args) {
+        Function[] functions = getFunctions();
+
+        ReimannSum reimannSum = new ReimannSum();
+
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args, functions, reimannSum);
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer(args, functions, reimannSum);
+            return;
+        }
+
+        Scanner in = new Scanner(System.in);
+        boolean flag = true;
+
+        System.out.println(START_MESSAGE);
+
+        while (flag) {
+            System.out.println(HELP_MESSAGE);
+            System.out.flush();
+
+            String input = in.nextLine();
+            String cmd = input.split(" ")[0];
+
+            switch (cmd) {
+                case "f":
+                case "formula":
+                case "c":
+                case "choose":
+                    Function curFunction;
+
+                    if (cmd.equals("f") || cmd.equals("formula")) {
+                        try {
+                            curFunction = FormulaFunction.of(input.substring(cmd.length()));
+                        } catch (InvalidFormulaException e) {
+                            System.err.println(e.getMessage());
+                            printBadCommand();
+                            break;
+                        }
+                    } else {
+                        if (input.split(" ").length != 2) {
+                            printBadCommand();
+                            break;
+                        }
+
+                        try {
+                            int number = Integer.parseInt(input.split(" ")[1]);
+
+                            if (number < 1 || number > functions.length) {
+                                throw new Exception("Bad command");
+                            }
+
+                            curFunction = functions[number - 1];
+                        } catch (Exception e) {
+                            printBadCommand();
+                            break;
+                        }
+                    }
+
+                    System.out.println("You choose function " + curFunction);
+
+                    Bounds bounds = null;
+
+                    boolean isCorrectInput = false;
+                    while (!isCorrectInput) {
+                        System.out.println(ASK_FOR_BOUNDS);
+                        System.out.flush();
+
+                        String[] stringBounds = in.nextLine().split(" ");
+
+                        if (stringBounds.length != 2) {
+                            printIncorrectInput();
+                            continue;
+                        }
+
+                        try {
+                            double leftBound = Double.parseDouble(stringBounds[0]);
+                            double rightBound = Double.parseDouble(stringBounds[1]);
+
+                            bounds = new Bounds(leftBound, rightBound);
+                        } catch (Exception e) {
+                            printIncorrectInput();
+                            continue;
+                        }
+
+                        isCorrectInput = true;
+                    }
+
+                    double accuracy = 0d;
+
+                    isCorrectInput = false;
+                    while (!isCorrectInput) {
+                        System.out.println(ASK_FOR_ACCURACY);
+                        System.out.flush();
+
+                        String[] stringAccuracy = in.nextLine().split(" ");
+
+                        if (stringAccuracy.length != 1) {
+                            printIncorrectInput();
+                            continue;
+                        }
+
+                        try {
+                            accuracy = Double.parseDouble(stringAccuracy[0]);
+                        } catch (Exception e) {
+                            printIncorrectInput();
+                            continue;
+                        }
+
+                        if (accuracy < EPS) {
+                            printIncorrectInput();
+                            continue;
+                        }
+
+                        isCorrectInput = true;
+                    }
+
+                    try {
+                        System.out.println(reimannSum.getReimannSum(curFunction, bounds, accuracy));
+                    } catch (NotImplementedMethodException e) {
+                        System.err.println("This method does not implement yet!");
+                    } catch (NotSolvableIntegralException e) {
+                        System.err.println("Can't count this integral at this bounds!");
+                    } catch (NotAllowedScopeException e) {
+                        System.err.println("Can't get integral in case of not allowed scope!");
+                    } catch (UnknownReimannSumRuleException e) {
+                        System.err.println("Solution by this Rule doesn't implement yet!");
+                    }
+                    System.err.flush();
+                    break;
+                case "e":
+                case "exit":
+                    System.out.println(EXIT_MESSAGE);
+                    System.out.flush();
+                    flag = false;
+                    break;
+                case "h":
+                case "help":
+                    System.out.println(HELP_MESSAGE);
+                    System.out.flush();
+                    break;
+                default:
+                    printBadCommand();
+                    break;
+            }
+        }
+
+        in.close();
+    }
+
+    // built-in functions in the order of HELP_MESSAGE
+    static Function[] getFunctions() {
         Function linearFunc = new Function() {
             @Override
             public double get(double argument) {
                 return argument;
             }
 
+            @Override
+            public void get(double[] arguments, double[] values, int count) {
+                System.arraycopy(arguments, 0, values, 0, count);
+            }
+
             @Override
             public Interval[] getNotAllowedScope() {
                 return new Interval[0];
@@ -68,7 +241,16 @@ public class Main {
         Function pow4Func = new Function() {
             @Override
             public double get(double argument) {
-                return 0.1 * Math.pow(argument, 4) + 0.2 * Math.pow(argument, 2) - 7;
+                double square = argument * argument;
+                return (0.1 * square + 0.2) * square - 7;
+            }
+
+            @Override
+            public void get(double[] arguments, double[] values, int count) {
+                for (int i = 0; i < count; i++) {
+                    double square = arguments[i] * arguments[i];
+                    values[i] = (0.1 * square + 0.2) * square - 7;
+                }
             }
 
             @Override
@@ -98,6 +280,13 @@ public class Main {
                 return Math.sqrt(argument);
             }
 
+            @Override
+            public void get(double[] arguments, double[] values, int count) {
+                for (int i = 0; i < count; i++) {
+                    values[i] = Math.sqrt(arguments[i]);
+                }
+            }
+
             @Override
             public Interval[] getNotAllowedScope() {
                 Interval[] res = new Interval[1];
@@ -172,6 +361,13 @@ public class Main {
                 return 0.01d / argument;
             }
 
+            @Override
+            public void get(double[] arguments, double[] values, int count) {
+                for (int i = 0; i < count; i++) {
+                    values[i] = 0.01d / arguments[i];
+                }
+            }
+
             @Override
             public Interval[] getNotAllowedScope() {
                 Interval[] res = new Interval[1];
@@ -186,6 +382,11 @@ public class Main {
                 return res;
             }
 
+            @Override
+            public TypeOfSingularity getSingularityType() {
+                return TypeOfSingularity.POLE_SINGULARITY;
+            }
+
             @Override
             public Function get2Derivative() {
                 return new DerivativeFunc() {
@@ -240,12 +441,35 @@ public class Main {
             }
         };
 
-        Function sinusDivX = new Function() {
+        TaylorFunction sinusDivX = new TaylorFunction() {
             @Override
             public double get(double argument) {
                 return Math.sin(argument) / argument;
             }
 
+            @Override
+            public TaylorNumber get(TaylorNumber argument) {
+                // near zero the quotient loses every digit of the higher coefficients, the series does not
+                if (Math.abs(argument.getValue()) < 1e-2) {
+                    TaylorNumber square = argument.multiply(argument);
+                    return square.multiply(-1d / 5040).add(1d / 120).multiply(square)
+                            .add(-1d / 6).multiply(square).add(1d);
+                }
+
+                return argument.sin().divide(argument);
+            }
+
+            @Override
+            public void get(double[] arguments, double[] values, int count) {
+                for (int i = 0; i < count; i++) {
+                    values[i] = Math.sin(arguments[i]);
+                }
+
+                for (int i = 0; i < count; i++) {
+                    values[i] /= arguments[i];
+                }
+            }
+
             @Override
             public Interval[] getNotAllowedScope() {
                 Interval[] res = new Interval[1];
@@ -260,170 +484,55 @@ public class Main {
                 return res;
             }
 
-            @Override
-            public Function get2Derivative() throws NotImplementedMethodException {
-                throw new NotImplementedMethodException();
-            }
-
-            @Override
-            public Function get4Derivative() throws NotImplementedMethodException {
-                throw new NotImplementedMethodException();
-            }
-
             @Override
             public String toString() {
                 return "y = sin(x)/x";
             }
         };
 
-        ReimannSum reimannSum = new ReimannSum();
-
-        Scanner in = new Scanner(System.in);
-        boolean flag = true;
-
-        System.out.println(START_MESSAGE);
-
-        while (flag) {
-            System.out.println(HELP_MESSAGE);
-            System.out.flush();
-
-            String input = in.nextLine();
-            String cmd = input.split(" ")[0];
-
-            switch (cmd) {
-                case "c":
-                case "choose":
-                    Function curFunction;
-
-                    if (input.split(" ").length != 2) {
-                        printBadCommand();
-                        break;
-                    }
-
-                    try {
-                        int number = Integer.parseInt(input.split(" ")[1]);
-
-                        switch (number) {
-                            case 1:
-                                curFunction = linearFunc;
-                                break;
-                            case 2:
-                                curFunction = sqrt;
-                                break;
-                            case 3:
-                                curFunction = pow4Func;
-                                break;
-                            case 4:
-                                curFunction = hyperbola;
-                                break;
-                            case 5:
-                                curFunction = sinusDivX;
-                                break;
-                            default:
-                                throw new Exception("Bad command");
-                        }
-                    } catch (Exception e) {
-                        printBadCommand();
-                        break;
-                    }
-
-                    System.out.println("You choose function " + curFunction);
-
-                    Bounds bounds = null;
-
-                    boolean isCorrectInput = false;
-                    while (!isCorrectInput) {
-                        System.out.println(ASK_FOR_BOUNDS);
-                        System.out.flush();
-
-                        String[] stringBounds = in.nextLine().split(" ");
-
-                        if (stringBounds.length != 2) {
-                            printIncorrectInput();
-                            continue;
-                        }
-
-                        try {
-                            double leftBound = Double.parseDouble(stringBounds[0]);
-                            double rightBound = Double.parseDouble(stringBounds[1]);
-
-                            if (curFunction == hyperbola && leftBound * rightBound < 0) {
-                                if (Math.abs(leftBound) < Math.abs(rightBound)) {
-                                    leftBound = -leftBound;
-                                } else {
-                                    rightBound = -rightBound;
-                                }
-                            }
-
-                            bounds = new Bounds(leftBound, rightBound);
-                        } catch (Exception e) {
-                            printIncorrectInput();
-                            continue;
-                        }
-
-                        isCorrectInput = true;
-                    }
-
-                    double accuracy = 0d;
-
-                    isCorrectInput = false;
-                    while (!isCorrectInput) {
-                        System.out.println(ASK_FOR_ACCURACY);
-                        System.out.flush();
-
-                        String[] stringAccuracy = in.nextLine().split(" ");
+        return new Function[]{linearFunc, sqrt, pow4Func, hyperbola, sinusDivX};
+    }
 
-                        if (stringAccuracy.length != 1) {
-                            printIncorrectInput();
-                            continue;
-                        }
+    private static void runBatch(String[] args, Function[] functions, ReimannSum reimannSum) {
+        String path = null;
+        boolean isJson = false;
+        int threadsCount = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--json")) {
+                isJson = true;
+            } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                threadsCount = Integer.parseInt(args[++i]);
+            } else {
+                path = args[i];
+            }
+        }
 
-                        try {
-                            accuracy = Double.parseDouble(stringAccuracy[0]);
-                        } catch (Exception e) {
-                            printIncorrectInput();
-                            continue;
-                        }
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
 
-                        if (accuracy < EPS) {
-                            printIncorrectInput();
-                            continue;
-                        }
+        try (BufferedReader in = path == null
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            new BatchRunner(functions, reimannSum, threadsCount, BatchRunner.DEFAULT_WINDOW_SIZE, isJson).run(in, out);
+        } catch (IOException e) {
+            out.flush();
+            System.err.println("Batch failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
 
-                        isCorrectInput = true;
-                    }
+    private static void runServer(String[] args, Function[] functions, ReimannSum reimannSum) {
+        ReimannSumServer server = new ReimannSumServer(functions, reimannSum);
 
-                    try {
-                        System.out.println(reimannSum.getReimannSum(curFunction, bounds, accuracy));
-                    } catch (NotImplementedMethodException e) {
-                        System.err.println("This method does not implement yet!");
-                    } catch (NotSolvableIntegralException e) {
-                        System.err.println("Can't count this integral at this bounds!");
-                    } catch (NotAllowedScopeException e) {
-                        System.err.println("Can't get integral in case of not allowed scope!");
-                    } catch (UnknownReimannSumRuleException e) {
-                        System.err.println("Solution by this Rule doesn't implement yet!");
-                    }
-                    System.err.flush();
-                    break;
-                case "e":
-                case "exit":
-                    System.out.println(EXIT_MESSAGE);
-                    System.out.flush();
-                    flag = false;
-                    break;
-                case "h":
-                case "help":
-                    System.out.println(HELP_MESSAGE);
-                    System.out.flush();
-                    break;
-                default:
-                    printBadCommand();
-                    break;
-            }
+        try {
+            server.start(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SERVER_PORT);
+        } catch (IOException e) {
+            System.err.println("Server failed: " + e.getMessage());
+            System.exit(1);
         }
 
-        in.close();
+        System.out.println("Listening on http://127.0.0.1:" + server.getPort() + "/integrate");
+        System.out.flush();
     }
 
     private static void printBadCommand() {
@@ -0,0 +1,150 @@
+import exception.NotAllowedScopeException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public class MaxValueEstimator {
+    static private final int SCAN_SECTIONS = 1024;
+    static private final int CANDIDATES_COUNT = 16;
+    static private final int REFINEMENT_ITERATIONS = 40;
+    static private final double INVERSE_GOLDEN_RATIO = (Math.sqrt(5d) - 1d) / 2d;
+    // the scan and two starting points plus one point per iteration of every refinement, fallbacks aside
+    static final long EVALUATIONS_MAX_COUNT = SCAN_SECTIONS + 1 + CANDIDATES_COUNT * (2 + REFINEMENT_ITERATIONS);
+
+    private final TypeOfExecution executionType;
+    private final ForkJoinPool pool;
+
+    public MaxValueEstimator(TypeOfExecution executionType) {
+        this(executionType, ForkJoinPool.commonPool());
+    }
+
+    // pool runs the refinements of the parallel execution
+    public MaxValueEstimator(TypeOfExecution executionType, ForkJoinPool pool) {
+        this.executionType = executionType;
+        this.pool = pool;
+    }
+
+    // maximum of |f| on the bounds: a coarse scan, then golden-section search around the largest local maxima
+    public double getMaxValue(Function function, Bounds bounds) throws NotAllowedScopeException {
+        if (!ReimannSumStatistics.ENABLED) {
+            return getEstimatedMaxValue(function, bounds);
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            return getEstimatedMaxValue(function, bounds);
+        } finally {
+            ReimannSumStatistics.addMaxValue(System.nanoTime() - start);
+        }
+    }
+
+    private double getEstimatedMaxValue(Function function, Bounds bounds) throws NotAllowedScopeException {
+        double step = bounds.getLength() / SCAN_SECTIONS;
+        double[] arguments = new double[SCAN_SECTIONS + 1];
+        double[] values = new double[SCAN_SECTIONS + 1];
+
+        for (int i = 0; i <= SCAN_SECTIONS; i++) {
+            arguments[i] = bounds.getLeftBound() + i * step;
+        }
+
+        function.getValues(arguments, values, values.length);
+
+        double maximum = 0d;
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.abs(values[i]);
+            maximum = Math.max(maximum, values[i]);
+
+            if (Double.isNaN(values[i])) {
+                throw new NotAllowedScopeException();
+            }
+        }
+
+        List<Integer> candidates = getCandidates(values);
+
+        double refinedMaximum = 0d;
+
+        if (executionType == TypeOfExecution.PARALLEL_EXECUTION) {
+            List<ForkJoinTask<Double>> refinements = new ArrayList<>();
+
+            for (int index : candidates) {
+                refinements.add(pool.submit(() -> getRefinedMaxValue(function, arguments, index)));
+            }
+
+            for (ForkJoinTask<Double> refinement : refinements) {
+                refinedMaximum = Math.max(refinedMaximum, refinement.join());
+            }
+        } else {
+            for (int index : candidates) {
+                refinedMaximum = Math.max(refinedMaximum, getRefinedMaxValue(function, arguments, index));
+            }
+        }
+
+        if (Double.isNaN(refinedMaximum)) {
+            throw new NotAllowedScopeException();
+        }
+
+        return Math.max(maximum, refinedMaximum);
+    }
+
+    private List<Integer> getCandidates(double[] values) {
+        List<Integer> localMaxima = new ArrayList<>();
+
+        for (int i = 0; i < values.length; i++) {
+            boolean isLeftLess = i == 0 || values[i - 1] <= values[i];
+            boolean isRightLess = i == values.length - 1 || values[i + 1] <= values[i];
+
+            if (isLeftLess && isRightLess) {
+                localMaxima.add(i);
+            }
+        }
+
+        localMaxima.sort((i, j) -> Double.compare(values[j], values[i]));
+
+        return localMaxima.subList(0, Math.min(CANDIDATES_COUNT, localMaxima.size()));
+    }
+
+    // search between the neighbours of the scan node
+    private double getRefinedMaxValue(Function function, double[] arguments, int index) {
+        return getRefinedMaxValue(
+                function,
+                arguments[Math.max(index - 1, 0)],
+                arguments[Math.min(index + 1, SCAN_SECTIONS)]
+        );
+    }
+
+    private double getRefinedMaxValue(Function function, double leftBound, double rightBound) {
+        double x1 = rightBound - INVERSE_GOLDEN_RATIO * (rightBound - leftBound);
+        double x2 = leftBound + INVERSE_GOLDEN_RATIO * (rightBound - leftBound);
+        double value1 = Math.abs(function.getCountableValue(x1));
+        double value2 = Math.abs(function.getCountableValue(x2));
+        double maximum = Math.max(value1, value2);
+
+        for (int iteration = 0; iteration < REFINEMENT_ITERATIONS; iteration++) {
+            if (value1 > value2) {
+                rightBound = x2;
+                x2 = x1;
+                value2 = value1;
+                x1 = rightBound - INVERSE_GOLDEN_RATIO * (rightBound - leftBound);
+                value1 = Math.abs(function.getCountableValue(x1));
+                maximum = Math.max(maximum, value1);
+            } else {
+                leftBound = x1;
+                x1 = x2;
+                value1 = value2;
+                x2 = leftBound + INVERSE_GOLDEN_RATIO * (rightBound - leftBound);
+                value2 = Math.abs(function.getCountableValue(x2));
+                maximum = Math.max(maximum, value2);
+            }
+
+            if (Double.isNaN(maximum)) {
+                return maximum;
+            }
+        }
+
+        return maximum;
+    }
+}
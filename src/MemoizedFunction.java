@@ -0,0 +1,187 @@
+import exception.NotImplementedMethodException;
+
+import java.util.Arrays;
+
+public class MemoizedFunction implements Function {
+    static private final int DEFAULT_CAPACITY = 1 << 16;
+    static private final int PROBE_LIMIT = 8;
+    // the table size is the capacity rounded up to a power of two
+    static private final int MAX_CAPACITY = 1 << 30;
+    // arguments are never NaN inside the table, so a NaN pattern can mark free slots
+    static private final long EMPTY_KEY = 0x7ff8dead0000beefL;
+
+    private final Function function;
+
+    private final long[] keys;
+    private final double[] values;
+    private final int mask;
+
+    private int size = 0;
+    private long hitsCount = 0L;
+    private long missesCount = 0L;
+    private long evictionsCount = 0L;
+
+    public MemoizedFunction(Function function) {
+        this(function, DEFAULT_CAPACITY);
+    }
+
+    public MemoizedFunction(Function function, int capacity) {
+        if (capacity < PROBE_LIMIT) {
+            throw new IllegalArgumentException("Capacity of memoized function is too small!");
+        }
+
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity of memoized function is too large!");
+        }
+
+        int tableSize = Integer.highestOneBit(capacity - 1) << 1;
+
+        this.function = function;
+        this.keys = new long[tableSize];
+        this.values = new double[tableSize];
+        this.mask = tableSize - 1;
+
+        Arrays.fill(keys, EMPTY_KEY);
+    }
+
+    @Override
+    public double get(double argument) {
+        if (Double.isNaN(argument)) {
+            return function.get(argument);
+        }
+
+        long key = Double.doubleToRawLongBits(argument);
+
+        synchronized (this) {
+            int index = find(key);
+
+            if (index >= 0) {
+                hitsCount++;
+                return values[index];
+            }
+
+            missesCount++;
+        }
+
+        // evaluated outside of the lock: memoization is meant for expensive functions
+        double value = function.get(argument);
+
+        synchronized (this) {
+            put(key, value);
+        }
+
+        return value;
+    }
+
+    @Override
+    public Interval[] getNotAllowedScope() {
+        return function.getNotAllowedScope();
+    }
+
+    @Override
+    public ScopeIndex getScopeIndex() {
+        return function.getScopeIndex();
+    }
+
+    @Override
+    public TypeOfSingularity getSingularityType() {
+        return function.getSingularityType();
+    }
+
+    @Override
+    public Function get2Derivative() throws NotImplementedMethodException {
+        return function.get2Derivative();
+    }
+
+    @Override
+    public Function get4Derivative() throws NotImplementedMethodException {
+        return function.get4Derivative();
+    }
+
+    public synchronized long getHitsCount() {
+        return hitsCount;
+    }
+
+    public synchronized long getMissesCount() {
+        return missesCount;
+    }
+
+    public synchronized long getEvictionsCount() {
+        return evictionsCount;
+    }
+
+    public synchronized int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(keys, EMPTY_KEY);
+        size = 0;
+        hitsCount = 0L;
+        missesCount = 0L;
+        evictionsCount = 0L;
+    }
+
+    @Override
+    public String toString() {
+        return function.toString();
+    }
+
+    private int find(long key) {
+        int home = getHome(key);
+
+        for (int i = 0; i < PROBE_LIMIT; i++) {
+            int index = (home + i) & mask;
+
+            if (keys[index] == key) {
+                return index;
+            }
+
+            if (keys[index] == EMPTY_KEY) {
+                return -1;
+            }
+        }
+
+        return -1;
+    }
+
+    private void put(long key, double value) {
+        int home = getHome(key);
+
+        for (int i = 0; i < PROBE_LIMIT; i++) {
+            int index = (home + i) & mask;
+
+            if (keys[index] == EMPTY_KEY) {
+                keys[index] = key;
+                values[index] = value;
+                size++;
+                return;
+            }
+
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+        }
+
+        // probe window is full: evict one of its slots, rotating the victim to spread evictions
+        int victim = (home + (int) (evictionsCount % PROBE_LIMIT)) & mask;
+        keys[victim] = key;
+        values[victim] = value;
+        evictionsCount++;
+    }
+
+    private int getHome(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+
+        return (int) key & mask;
+    }
+}
@@ -0,0 +1,10 @@
+public interface MultivariateFunction {
+    int getDimension();
+
+    // arguments hold getDimension() coordinates
+    double get(double[] arguments);
+
+    default boolean isCountableValue(double value) {
+        return !Double.isNaN(value) && Math.abs(value) <= Function.DOUBLE_MAX_VALUE;
+    }
+}
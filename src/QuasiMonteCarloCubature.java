@@ -0,0 +1,156 @@
+import exception.NotSolvableIntegralException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Randomized quasi-Monte Carlo: every stream takes the same Halton points moved by its own random shift modulo 1
+ * (Cranley-Patterson rotation). The streams are independent estimates of the integral, so their spread gives
+ * the error, and they run in parallel. The count of points doubles until the error is below the accuracy.
+ */
+public class QuasiMonteCarloCubature {
+    static private final int STREAMS_COUNT = 16;
+    static private final long POINTS_MIN_VALUE = 1L << 10;
+    static private final long POINTS_MAX_VALUE = 1L << 24;
+    // fixed, so one integral always gives one answer
+    static private final long SEED = 0x5eed_4a17L;
+
+    private final MultivariateFunction function;
+    private final Box box;
+    private final ForkJoinPool pool;
+    private final int[] bases;
+
+    public QuasiMonteCarloCubature(MultivariateFunction function, Box box, ForkJoinPool pool) {
+        this.function = function;
+        this.box = box;
+        this.pool = pool;
+        this.bases = getPrimes(box.getDimension());
+    }
+
+    public ReimannSumAnswer getAnswer(double accuracy, IntegrationBudget budget)
+            throws NotSolvableIntegralException {
+        int dimension = box.getDimension();
+        double[][] shifts = new double[STREAMS_COUNT][dimension];
+        Random random = new Random(SEED);
+
+        for (double[] shift : shifts) {
+            for (int k = 0; k < dimension; k++) {
+                shift[k] = random.nextDouble();
+            }
+        }
+
+        double[] sums = new double[STREAMS_COUNT];
+        long pointsCount = 0L;
+        double value = Double.NaN;
+        double error = Double.NaN;
+
+        for (long nextCount = POINTS_MIN_VALUE; ; nextCount *= 2) {
+            if (nextCount > POINTS_MAX_VALUE) {
+                throw new NotSolvableIntegralException();
+            }
+
+            if (pointsCount != 0L && budget.isExhausted(nextCount * STREAMS_COUNT)) {
+                return new ReimannSumAnswer(value, error, (int) pointsCount, pointsCount * STREAMS_COUNT, 0, false);
+            }
+
+            // every stream goes on from the point where it stopped
+            List<ForkJoinTask<Double>> streams = new ArrayList<>();
+            for (int i = 0; i < STREAMS_COUNT; i++) {
+                double[] shift = shifts[i];
+                long from = pointsCount;
+                long to = nextCount;
+                streams.add(pool.submit(() -> getSum(shift, from, to)));
+            }
+
+            for (int i = 0; i < STREAMS_COUNT; i++) {
+                sums[i] += streams.get(i).join();
+            }
+
+            pointsCount = nextCount;
+
+            double mean = 0d;
+            for (double sum : sums) {
+                mean += sum / pointsCount;
+            }
+            mean /= STREAMS_COUNT;
+
+            double variance = 0d;
+            for (double sum : sums) {
+                double deviation = sum / pointsCount - mean;
+                variance += deviation * deviation;
+            }
+            variance /= STREAMS_COUNT - 1;
+
+            value = mean * box.getVolume();
+            error = Math.sqrt(variance / STREAMS_COUNT) * Math.abs(box.getVolume());
+
+            if (!function.isCountableValue(value)) {
+                throw new NotSolvableIntegralException();
+            }
+
+            if (error < accuracy) {
+                return new ReimannSumAnswer(value, error, (int) pointsCount, pointsCount * STREAMS_COUNT);
+            }
+        }
+    }
+
+    // sum of the function at the shifted Halton points from the index 'from' inclusive to 'to' exclusive
+    private double getSum(double[] shift, long from, long to) {
+        int dimension = box.getDimension();
+        double[] arguments = new double[dimension];
+        double res = 0d;
+
+        // the zero index is the corner of the cube for every coordinate, so the points start from 1
+        for (long index = from + 1; index <= to; index++) {
+            for (int k = 0; k < dimension; k++) {
+                double point = getRadicalInverse(index, bases[k]) + shift[k];
+                point -= Math.floor(point);
+
+                arguments[k] = box.getLeftBound(k) + box.getLength(k) * point;
+            }
+
+            res += function.get(arguments);
+        }
+
+        return res;
+    }
+
+    // digits of the index in the base mirrored around the point: 6 = 110b gives 0.011b
+    private static double getRadicalInverse(long index, int base) {
+        double res = 0d;
+        double factor = 1d / base;
+
+        while (index > 0) {
+            res += (index % base) * factor;
+            index /= base;
+            factor /= base;
+        }
+
+        return res;
+    }
+
+    private static int[] getPrimes(int count) {
+        int[] primes = new int[count];
+        int found = 0;
+
+        for (int candidate = 2; found < count; candidate++) {
+            boolean isPrime = true;
+
+            for (int i = 0; i < found && primes[i] * primes[i] <= candidate; i++) {
+                if (candidate % primes[i] == 0) {
+                    isPrime = false;
+                    break;
+                }
+            }
+
+            if (isPrime) {
+                primes[found++] = candidate;
+            }
+        }
+
+        return primes;
+    }
+}
@@ -1,15 +1,116 @@
 import exception.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
 public class ReimannSum {
     static private final long N_MAX_VALUE = 100_000_000L;
     static private final double DOUBLE_MAX_VALUE = 1e30d;
+    static private final int DEFAULT_GAUSS_LEGENDRE_ORDER = 5;
+    static private final int GAUSS_LEGENDRE_MAX_ORDER = 16;
+    // successive ratios of differences agree within it once the convergence is asymptotic
+    static private final double RATIO_TOLERANCE = 0.25d;
+
+    private final ForkJoinPool pool;
+    private final TypeOfSummation summationType;
+    // kernel of GAUSS_LEGENDRE_RULE for every solution type
+    private final ReimannSumKernel gaussLegendreKernel;
+    private final int gaussLegendreOrder;
+
+    public ReimannSum() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ReimannSum(ForkJoinPool pool) {
+        this(pool, TypeOfSummation.NAIVE_SUMMATION);
+    }
+
+    public ReimannSum(TypeOfSummation summationType) {
+        this(ForkJoinPool.commonPool(), summationType);
+    }
+
+    public ReimannSum(ForkJoinPool pool, TypeOfSummation summationType) {
+        this(pool, summationType, DEFAULT_GAUSS_LEGENDRE_ORDER);
+    }
+
+    public ReimannSum(ForkJoinPool pool, TypeOfSummation summationType, int gaussLegendreOrder) {
+        if (gaussLegendreOrder < 1 || gaussLegendreOrder > GAUSS_LEGENDRE_MAX_ORDER) {
+            throw new IllegalArgumentException(
+                    "Order of Gauss-Legendre rule should be from 1 to " + GAUSS_LEGENDRE_MAX_ORDER + "!"
+            );
+        }
+
+        this.pool = pool;
+        this.summationType = summationType;
+        this.gaussLegendreOrder = gaussLegendreOrder;
+        this.gaussLegendreKernel = ReimannSumKernel.ofGaussLegendre(gaussLegendreOrder);
+    }
 
     public ReimannSumAnswer getReimannSum(
             Function function,
             Bounds bounds,
             double accuracy,
             ReimannSumRule rule,
-            TypeOfSolution solutionType
+            TypeOfSolution solutionType,
+            TypeOfExecution executionType
+    ) throws
+            NotImplementedMethodException,
+            UnknownReimannSumRuleException,
+            NotAllowedScopeException,
+            NotSolvableIntegralException {
+        return getReimannSum(
+                function,
+                bounds,
+                accuracy,
+                rule,
+                solutionType,
+                executionType,
+                IntegrationBudget.UNLIMITED
+        );
+    }
+
+    // when the budget runs out the best estimate so far is returned, marked as not converged
+    public ReimannSumAnswer getReimannSum(
+            Function function,
+            Bounds bounds,
+            double accuracy,
+            ReimannSumRule rule,
+            TypeOfSolution solutionType,
+            TypeOfExecution executionType,
+            IntegrationBudget budget
+    ) throws
+            NotImplementedMethodException,
+            UnknownReimannSumRuleException,
+            NotAllowedScopeException,
+            NotSolvableIntegralException {
+        if (!ReimannSumStatistics.ENABLED) {
+            return getAnswer(function, bounds, accuracy, rule, solutionType, executionType, budget);
+        }
+
+        long start = System.nanoTime();
+        boolean isFailed = true;
+
+        try {
+            ReimannSumAnswer answer =
+                    getAnswer(function, bounds, accuracy, rule, solutionType, executionType, budget);
+            isFailed = false;
+            return answer;
+        } finally {
+            ReimannSumStatistics.addIntegration(System.nanoTime() - start, isFailed);
+        }
+    }
+
+    private ReimannSumAnswer getAnswer(
+            Function function,
+            Bounds bounds,
+            double accuracy,
+            ReimannSumRule rule,
+            TypeOfSolution solutionType,
+            TypeOfExecution executionType,
+            IntegrationBudget budget
     ) throws
             NotImplementedMethodException,
             UnknownReimannSumRuleException,
@@ -17,16 +118,158 @@ public class ReimannSum {
             NotSolvableIntegralException {
         checkAllowedScope(function, bounds);
 
+        // only the double exponential substitution maps an infinite range onto a finite sum
+        boolean isInfinite = Double.isInfinite(bounds.getLeftBound()) || Double.isInfinite(bounds.getRightBound());
+        if (isInfinite && solutionType != TypeOfSolution.SOLUTION_BY_DOUBLE_EXPONENTIAL) {
+            throw new NotSolvableIntegralException();
+        }
+
+        double[] points = function.getScopeIndex().getInnerPoints(bounds);
+        if (points.length != 0) {
+            return getSplitAnswer(function, bounds, points, accuracy, rule, solutionType, executionType, budget);
+        }
+
+        ReimannSumExecutor executor = new ReimannSumExecutor(executionType, summationType, pool);
+
         switch (solutionType) {
             case SOLUTION_BY_FORMULAS:
-                return getSumByFormulasSolution(function, bounds, accuracy, rule);
+                return getSumByFormulasSolution(function, bounds, accuracy, rule, executor, budget);
             case SOLUTION_BY_RUNGE:
-                return getSumByRungeSolution(function, bounds, accuracy, rule);
+                return getSumByRungeSolution(function, bounds, accuracy, rule, executor, budget);
+            case SOLUTION_ADAPTIVE:
+                return new AdaptiveQuadrature(function, bounds).getAnswer(accuracy, budget);
+            case SOLUTION_BY_ROMBERG:
+                return getSumByRombergSolution(function, bounds, accuracy, executor, budget);
+            case SOLUTION_BY_DOUBLE_EXPONENTIAL:
+                return new DoubleExponentialQuadrature(function, bounds).getAnswer(accuracy, budget);
             default:
                 throw new NotImplementedSolutionException();
         }
     }
 
+    // pieces between the excluded points run in parallel, each with its share of the accuracy and of the budget
+    private ReimannSumAnswer getSplitAnswer(
+            Function function,
+            Bounds bounds,
+            double[] points,
+            double accuracy,
+            ReimannSumRule rule,
+            TypeOfSolution solutionType,
+            TypeOfExecution executionType,
+            IntegrationBudget budget
+    ) throws
+            NotImplementedMethodException,
+            UnknownReimannSumRuleException,
+            NotAllowedScopeException,
+            NotSolvableIntegralException {
+        double leftBound = Math.min(bounds.getLeftBound(), bounds.getRightBound());
+        double rightBound = Math.max(bounds.getLeftBound(), bounds.getRightBound());
+        double sign = bounds.getLeftBound() <= bounds.getRightBound() ? 1d : -1d;
+
+        List<CompletableFuture<ReimannSumAnswer>> results = new ArrayList<>();
+
+        for (SingularitySplitter.Piece piece : SingularitySplitter.split(function, leftBound, rightBound, points)) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return getAnswer(
+                            piece.getFunction(),
+                            piece.getBounds(),
+                            accuracy * piece.getShare(),
+                            rule,
+                            solutionType,
+                            executionType,
+                            budget.getShare(piece.getShare())
+                    );
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, pool));
+        }
+
+        double value = 0d;
+        double error = 0d;
+        int iterationsCount = 0;
+        long evaluationsCount = 0L;
+        int extrapolationDepth = 0;
+        boolean converged = true;
+
+        try {
+            for (CompletableFuture<ReimannSumAnswer> result : results) {
+                ReimannSumAnswer answer = getResult(result);
+
+                value += answer.getValue();
+                error += answer.getMeasurementError();
+                iterationsCount += answer.getIterationsCount();
+                evaluationsCount += answer.getEvaluationsCount();
+                extrapolationDepth = Math.max(extrapolationDepth, answer.getExtrapolationDepth());
+                converged &= answer.isConverged();
+            }
+        } finally {
+            // after a failed piece the rest are of no use
+            for (CompletableFuture<ReimannSumAnswer> result : results) {
+                result.cancel(false);
+            }
+        }
+
+        return new ReimannSumAnswer(
+                sign * value,
+                error,
+                iterationsCount,
+                evaluationsCount,
+                extrapolationDepth,
+                converged
+        );
+    }
+
+    private static ReimannSumAnswer getResult(CompletableFuture<ReimannSumAnswer> result) throws
+            NotImplementedMethodException,
+            UnknownReimannSumRuleException,
+            NotAllowedScopeException,
+            NotSolvableIntegralException {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof NotImplementedMethodException) {
+                throw (NotImplementedMethodException) cause;
+            } else if (cause instanceof UnknownReimannSumRuleException) {
+                throw (UnknownReimannSumRuleException) cause;
+            } else if (cause instanceof NotAllowedScopeException) {
+                throw (NotAllowedScopeException) cause;
+            } else if (cause instanceof NotSolvableIntegralException) {
+                throw (NotSolvableIntegralException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public ReimannSumAnswer getReimannSum(
+            Function function,
+            Bounds bounds,
+            double accuracy,
+            ReimannSumRule rule,
+            TypeOfSolution solutionType
+    ) throws
+            NotImplementedMethodException,
+            UnknownReimannSumRuleException,
+            NotAllowedScopeException,
+            NotSolvableIntegralException {
+        return getReimannSum(
+                function,
+                bounds,
+                accuracy,
+                rule,
+                solutionType,
+                TypeOfExecution.SEQUENTIAL_EXECUTION
+        );
+    }
+
     public ReimannSumAnswer getReimannSum(
             Function function,
             Bounds bounds,
@@ -47,11 +290,8 @@ public class ReimannSum {
 
     private void checkAllowedScope(Function function, Bounds bounds)
             throws NotAllowedScopeException {
-        for (Interval notAllowedScope : function.getNotAllowedScope()) {
-            if (notAllowedScope.isPoint()) continue;
-            if (notAllowedScope.isIntersect(bounds)) {
-                throw new NotAllowedScopeException();
-            }
+        if (function.getScopeIndex().isIntersect(bounds)) {
+            throw new NotAllowedScopeException();
         }
     }
 
@@ -59,17 +299,77 @@ public class ReimannSum {
             Function function,
             Bounds bounds,
             double accuracy,
-            ReimannSumRule rule
+            ReimannSumRule rule,
+            ReimannSumExecutor executor,
+            IntegrationBudget budget
     ) throws
             NotImplementedMethodException,
             UnknownReimannSumRuleException,
-            NotAllowedScopeException {
-        int n = getCountOfSections(function, bounds, accuracy, rule);
+            NotAllowedScopeException,
+            NotSolvableIntegralException {
+        // the scan of the derivative is charged as evaluations, one per evaluation of the derivative
+        if (budget.isExhausted(MaxValueEstimator.EVALUATIONS_MAX_COUNT)) {
+            return getCoarseAnswer(function, bounds, rule, executor, 0L);
+        }
+
+        int n = getCountOfSections(function, bounds, accuracy, rule, executor.getExecutionType());
+
+        // a derivative unbounded at a bound gives a grid no sum can afford
+        if (n > N_MAX_VALUE) {
+            throw new NotSolvableIntegralException();
+        }
+
+        ReimannSumKernel kernel = getKernel(rule);
+        long evaluationsCount = MaxValueEstimator.EVALUATIONS_MAX_COUNT + kernel.getEvaluationsCount(n);
+
+        // the scan may have taken the rest of the time
+        if (budget.isCancelled() || budget.isExpired()) {
+            return getCoarseAnswer(function, bounds, rule, executor, MaxValueEstimator.EVALUATIONS_MAX_COUNT);
+        }
+
+        // a single sum can't be stopped midway, so only the evaluations limit shrinks the grid
+        if (budget.isAffordable(evaluationsCount)) {
+            return new ReimannSumAnswer(
+                    getSumByRuleByN(function, bounds, rule, n, executor),
+                    Double.NaN,
+                    n,
+                    evaluationsCount
+            );
+        }
+
+        long sumEvaluationsLimit = budget.getEvaluationsLimit() - MaxValueEstimator.EVALUATIONS_MAX_COUNT;
+        n = (int) Math.max(1L, n * sumEvaluationsLimit / kernel.getEvaluationsCount(n));
 
         return new ReimannSumAnswer(
-                getSumByRuleByN(function, bounds, rule, n),
+                getSumByRuleByN(function, bounds, rule, n, executor),
                 Double.NaN,
-                n
+                n,
+                MaxValueEstimator.EVALUATIONS_MAX_COUNT + kernel.getEvaluationsCount(n),
+                0,
+                false
+        );
+    }
+
+    // sums over one and two sections, the best estimate a stopped call of the formulas can afford
+    private ReimannSumAnswer getCoarseAnswer(
+            Function function,
+            Bounds bounds,
+            ReimannSumRule rule,
+            ReimannSumExecutor executor,
+            long evaluationsCount
+    ) throws NotImplementedSolutionException, NotAllowedScopeException {
+        RungeRefinement refinement = new RungeRefinement(function, bounds, rule, getKernel(rule), 1, executor);
+        double prevValue = refinement.getValue();
+        refinement.refine();
+
+        // a grid this coarse is far from the asymptotic convergence, hence the plain difference as the error
+        return new ReimannSumAnswer(
+                refinement.getValue(),
+                Math.abs(refinement.getValue() - prevValue),
+                refinement.getCountOfSections(),
+                evaluationsCount + refinement.getEvaluationsCount(),
+                0,
+                false
         );
     }
 
@@ -77,31 +377,129 @@ public class ReimannSum {
             Function function,
             Bounds bounds,
             double accuracy,
-            ReimannSumRule rule
+            ReimannSumRule rule,
+            ReimannSumExecutor executor,
+            IntegrationBudget budget
     ) throws
             NotImplementedSolutionException,
             UnknownReimannSumRuleException,
             NotSolvableIntegralException,
             NotAllowedScopeException {
-        int n = 2;
-        double curValue = getSumByRuleByN(function, bounds, rule, n);
+        RungeRefinement refinement = new RungeRefinement(function, bounds, rule, getKernel(rule), 2, executor);
+        double curValue = refinement.getValue();
         double prevValue;
+        double error = Double.NaN;
+        double prevDifference = Double.NaN;
+        double prevRatio = Double.NaN;
 
         do {
-            n <<= 1;
+            if ((long) refinement.getCountOfSections() << 1 > N_MAX_VALUE) {
+                throw new NotSolvableIntegralException();
+            }
+
+            if (budget.isExhausted(refinement.getEvaluationsCount() + refinement.getRefinementEvaluationsCount())) {
+                return new ReimannSumAnswer(
+                        curValue,
+                        error,
+                        refinement.getCountOfSections(),
+                        refinement.getEvaluationsCount(),
+                        0,
+                        false
+                );
+            }
+
+            refinement.refine();
 
             prevValue = curValue;
-            curValue = getSumByRuleByN(function, bounds, rule, n);
+            curValue = refinement.getValue();
 
-            if (n > N_MAX_VALUE || !isAvailableValue(curValue)) {
+            if (!isAvailableValue(curValue)) {
                 throw new NotSolvableIntegralException();
             }
-        } while (!(getMeasurementError(prevValue, curValue, rule) < accuracy));
+
+            if (rule == ReimannSumRule.GAUSS_LEGENDRE_RULE) {
+                // h^(2k) of a high order holds only for smooth functions, e.g. sqrt near 0 converges as h^1.5,
+                // so the divisor follows the observed ratio of differences once two successive ratios agree
+                double difference = Math.abs(curValue - prevValue);
+                double ratio = prevDifference / difference;
+
+                error = Math.abs(ratio - prevRatio) < RATIO_TOLERANCE * ratio
+                        ? difference / Math.max(1d, Math.min(ratio - 1, (1L << 2 * gaussLegendreOrder) - 1))
+                        : difference;
+
+                prevDifference = difference;
+                prevRatio = ratio;
+            } else {
+                error = getMeasurementError(prevValue, curValue, rule);
+            }
+        } while (!(error < accuracy));
 
         return new ReimannSumAnswer(
                 curValue,
-                getMeasurementError(prevValue, curValue, rule),
-                n
+                error,
+                refinement.getCountOfSections(),
+                refinement.getEvaluationsCount()
+        );
+    }
+
+    private ReimannSumAnswer getSumByRombergSolution(
+            Function function,
+            Bounds bounds,
+            double accuracy,
+            ReimannSumExecutor executor,
+            IntegrationBudget budget
+    ) throws
+            NotImplementedSolutionException,
+            NotSolvableIntegralException,
+            NotAllowedScopeException {
+        RungeRefinement refinement =
+                new RungeRefinement(function, bounds, ReimannSumRule.TRAPEZOIDAL_RULE, 1, executor);
+        double[] prevRow = {refinement.getValue()};
+        double[] curRow;
+        double error = Double.NaN;
+
+        do {
+            if ((long) refinement.getCountOfSections() << 1 > N_MAX_VALUE) {
+                throw new NotSolvableIntegralException();
+            }
+
+            if (budget.isExhausted(refinement.getEvaluationsCount() + refinement.getRefinementEvaluationsCount())) {
+                return new ReimannSumAnswer(
+                        prevRow[prevRow.length - 1],
+                        error,
+                        refinement.getCountOfSections(),
+                        refinement.getCountOfSections() + 1,
+                        prevRow.length - 1,
+                        false
+                );
+            }
+
+            refinement.refine();
+
+            curRow = new double[prevRow.length + 1];
+            curRow[0] = refinement.getValue();
+
+            // Richardson extrapolation: the k-th column removes the h^(2k) term of the trapezoidal error
+            double factor = 1d;
+            for (int k = 1; k < curRow.length; k++) {
+                factor *= 4;
+                curRow[k] = curRow[k - 1] + (curRow[k - 1] - prevRow[k - 1]) / (factor - 1);
+            }
+
+            if (!isAvailableValue(curRow[curRow.length - 1])) {
+                throw new NotSolvableIntegralException();
+            }
+
+            error = Math.abs(curRow[curRow.length - 1] - prevRow[prevRow.length - 1]);
+            prevRow = curRow;
+        } while (curRow.length < 3 || !(error < accuracy));
+
+        return new ReimannSumAnswer(
+                curRow[curRow.length - 1],
+                error,
+                refinement.getCountOfSections(),
+                refinement.getCountOfSections() + 1,
+                curRow.length - 1
         );
     }
 
@@ -121,53 +519,35 @@ public class ReimannSum {
                 return res / 3;
             case SIMPSONS_RULE:
                 return res / 15;
+            case GAUSS_LEGENDRE_RULE:
+                return res / ((1L << 2 * gaussLegendreOrder) - 1);
             default:
                 throw new UnknownReimannSumRuleException();
         }
     }
 
-    private double getSumByRuleByN(Function function, Bounds bounds, ReimannSumRule rule, int n)
-            throws NotImplementedSolutionException, NotAllowedScopeException {
-        double sum = 0d;
+    private double getSumByRuleByN(
+            Function function,
+            Bounds bounds,
+            ReimannSumRule rule,
+            int n,
+            ReimannSumExecutor executor
+    ) throws NotImplementedSolutionException, NotAllowedScopeException {
         double step = bounds.getLength() / n;
-        double curLeftBound = bounds.getLeftBound();
-
-        for (int i = 0; i < n; i++) {
-            switch (rule) {
-                case LEFT_RULE:
-                    sum += function.getValue(curLeftBound) * step;
-                    break;
-                case RIGHT_RULE:
-                    sum += function.getValue(curLeftBound + step) * step;
-                    break;
-                case MIDPOINT_RULE:
-                    sum += function.getValue(
-                            (curLeftBound * 2 + step) / 2
-                    ) * step;
-                    break;
-                case TRAPEZOIDAL_RULE:
-                    sum += (
-                            function.getValue(curLeftBound) +
-                            function.getValue(curLeftBound + step)
-                    ) * step / 2;
-                    break;
-                case SIMPSONS_RULE:
-                    //TODO: solve
-                default:
-                    throw new NotImplementedSolutionException();
-            }
 
-            curLeftBound += step;
-        }
+        return executor.getSum(getKernel(rule), function, bounds.getLeftBound(), step, n) * step;
+    }
 
-        return sum;
+    private ReimannSumKernel getKernel(ReimannSumRule rule) throws NotImplementedSolutionException {
+        return rule == ReimannSumRule.GAUSS_LEGENDRE_RULE ? gaussLegendreKernel : ReimannSumKernel.of(rule);
     }
 
     private int getCountOfSections(
             Function function,
             Bounds bounds,
             double accuracy,
-            ReimannSumRule rule
+            ReimannSumRule rule,
+            TypeOfExecution executionType
     ) throws
             UnknownReimannSumRuleException,
             NotImplementedMethodException,
@@ -179,22 +559,45 @@ public class ReimannSum {
             case RIGHT_RULE:
             case MIDPOINT_RULE:
                 res = Math.sqrt(
-                        Math.pow(bounds.getLength(), 3) *
-                        function.get2Derivative().getMaxValue(bounds) / 24 / accuracy
+                        Math.pow(Math.abs(bounds.getLength()), 3) *
+                        function.get2Derivative().getMaxValue(bounds, executionType, pool) / 24 / accuracy
                 );
                 return (int) (res + 1.0d);
             case SIMPSONS_RULE:
+                // a section holds two Simpson subintervals, so the error is
+                // (b - a)^5 / (2880 * n^4) * max of the fourth derivative
                 res = Math.sqrt(
                         Math.sqrt(
-                                Math.pow(bounds.getLength(), 5) *
-                                function.get4Derivative().getMaxValue(bounds) / 180 / accuracy
+                                Math.pow(Math.abs(bounds.getLength()), 5) *
+                                function.get4Derivative().getMaxValue(bounds, executionType, pool) / 2880 / accuracy
                         )
                 );
                 return (int) (res + 1.0d);
             case TRAPEZOIDAL_RULE:
                 res = Math.sqrt(
-                        Math.pow(bounds.getLength(), 3) *
-                        function.get2Derivative().getMaxValue(bounds) / 12 / accuracy
+                        Math.pow(Math.abs(bounds.getLength()), 3) *
+                        function.get2Derivative().getMaxValue(bounds, executionType, pool) / 12 / accuracy
+                );
+                return (int) (res + 1.0d);
+            case GAUSS_LEGENDRE_RULE:
+                if (gaussLegendreOrder == 1) {
+                    // the one-point rule is the midpoint rule
+                    res = Math.sqrt(
+                            Math.pow(Math.abs(bounds.getLength()), 3) *
+                            function.get2Derivative().getMaxValue(bounds, executionType, pool) / 24 / accuracy
+                    );
+                    return (int) (res + 1.0d);
+                }
+
+                // error of the two-point rule is (b - a)^5 / (4320 * n^4) * max of the fourth derivative;
+                // any higher order is exact for cubics too, so the Taylor remainder of the middle of a section
+                // bounds both the integral and the rule by (b - a)^5 / (320 * n^4) * max of the fourth derivative
+                res = Math.sqrt(
+                        Math.sqrt(
+                                Math.pow(Math.abs(bounds.getLength()), 5) *
+                                function.get4Derivative().getMaxValue(bounds, executionType, pool) /
+                                        (gaussLegendreOrder == 2 ? 4320 : 320) / accuracy
+                        )
                 );
                 return (int) (res + 1.0d);
             default:
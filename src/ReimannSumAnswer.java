@@ -2,17 +2,76 @@ public class ReimannSumAnswer {
     private double value;
     private double measurementError;
     private int iterationsCount;
+    private long evaluationsCount;
+    private int extrapolationDepth;
+    private boolean converged;
 
     public ReimannSumAnswer(double value, double measurementError, int iterationsCount) {
+        this(value, measurementError, iterationsCount, 0L);
+    }
+
+    public ReimannSumAnswer(double value, double measurementError, int iterationsCount, long evaluationsCount) {
+        this(value, measurementError, iterationsCount, evaluationsCount, 0);
+    }
+
+    public ReimannSumAnswer(
+            double value,
+            double measurementError,
+            int iterationsCount,
+            long evaluationsCount,
+            int extrapolationDepth
+    ) {
+        this(value, measurementError, iterationsCount, evaluationsCount, extrapolationDepth, true);
+    }
+
+    // not converged answers are the best estimates at the moment a budget ran out
+    public ReimannSumAnswer(
+            double value,
+            double measurementError,
+            int iterationsCount,
+            long evaluationsCount,
+            int extrapolationDepth,
+            boolean converged
+    ) {
         this.iterationsCount = iterationsCount;
         this.measurementError = measurementError;
         this.value = value;
+        this.evaluationsCount = evaluationsCount;
+        this.extrapolationDepth = extrapolationDepth;
+        this.converged = converged;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public double getMeasurementError() {
+        return measurementError;
+    }
+
+    public int getIterationsCount() {
+        return iterationsCount;
+    }
+
+    public long getEvaluationsCount() {
+        return evaluationsCount;
+    }
+
+    public int getExtrapolationDepth() {
+        return extrapolationDepth;
+    }
+
+    public boolean isConverged() {
+        return converged;
     }
 
     @Override
     public String toString() {
         return "Value of the integral is " + value + "\n" +
+                (converged ? "" : "the accuracy is not reached, the budget ran out\n") +
                 "count of steps: " + iterationsCount + "\n" +
+                (evaluationsCount == 0L ? "" : "count of function evaluations: " + evaluationsCount + "\n") +
+                (extrapolationDepth == 0 ? "" : "extrapolation depth: " + extrapolationDepth + "\n") +
                 (Double.isNaN(measurementError) ? "" : "measurement error: " + measurementError) + "\n";
     }
 }
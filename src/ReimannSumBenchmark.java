@@ -0,0 +1,203 @@
+import exception.NotImplementedMethodException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmark of the built-in functions of Main, printed as CSV:
+ * sum_by_n - one grid sum of 2^16 sections for every rule,
+ * max_value - estimate of the maximum of |f|,
+ * integral - every rule, solution type and accuracy.
+ * Run 'java ReimannSumBenchmark [warmup_millis] [measurement_millis] [filter]',
+ * filter keeps the rows whose name contains it, e.g. 'integral,3,SIMPSONS'.
+ */
+public class ReimannSumBenchmark {
+    static private final long DEFAULT_WARMUP_MILLIS = 200L;
+    static private final long DEFAULT_MEASUREMENT_MILLIS = 500L;
+    static private final int SUM_SECTIONS = 1 << 16;
+    static private final double[] ACCURACIES = {1e-3, 1e-5, 1e-7};
+    // bounds of the functions of Main in the same order, inside of their allowed scopes
+    static private final Bounds[] BOUNDS = {
+            new Bounds(0d, 1d),
+            new Bounds(1d, 4d),
+            new Bounds(-1d, 2d),
+            new Bounds(1d, 2d),
+            new Bounds(1d, 10d)
+    };
+
+    // results go here, so the JIT can't drop the measured code
+    static private volatile double sink;
+
+    private final long warmupNanos;
+    private final long measurementNanos;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    public ReimannSumBenchmark(long warmupMillis, long measurementMillis) {
+        this.warmupNanos = warmupMillis * 1_000_000L;
+        this.measurementNanos = measurementMillis * 1_000_000L;
+    }
+
+    public static void main(String[] args) {
+        long warmupMillis = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_WARMUP_MILLIS;
+        long measurementMillis = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_MEASUREMENT_MILLIS;
+        String filter = args.length > 2 ? args[2] : "";
+
+        new ReimannSumBenchmark(warmupMillis, measurementMillis).run(Main.getFunctions(), filter);
+    }
+
+    public void run(Function[] functions, String filter) {
+        ReimannSum reimannSum = new ReimannSum();
+        ReimannSumExecutor executor = new ReimannSumExecutor(
+                TypeOfExecution.SEQUENTIAL_EXECUTION,
+                TypeOfSummation.NAIVE_SUMMATION,
+                ForkJoinPool.commonPool()
+        );
+
+        System.out.println("benchmark,function,rule,solution,accuracy," +
+                "ops_per_second,ns_per_op,evaluations_per_op,ns_per_evaluation,bytes_per_op,status");
+
+        for (int i = 0; i < functions.length; i++) {
+            String function = String.valueOf(i + 1);
+            Bounds bounds = BOUNDS[i];
+            double step = bounds.getLength() / SUM_SECTIONS;
+
+            for (ReimannSumRule rule : ReimannSumRule.values()) {
+                String name = "sum_by_n," + function + "," + rule + ",,";
+
+                if (name.contains(filter)) {
+                    print(name, measure(functions[i], counted -> executor.getSum(
+                            ReimannSumKernel.of(rule), counted, bounds.getLeftBound(), step, SUM_SECTIONS
+                    ) * step));
+                }
+            }
+
+            String name = "max_value," + function + ",,,";
+
+            if (name.contains(filter)) {
+                print(name, measure(functions[i], counted -> counted.getMaxValue(bounds)));
+            }
+
+            for (ReimannSumRule rule : ReimannSumRule.values()) {
+                for (TypeOfSolution solutionType : TypeOfSolution.values()) {
+                    for (double accuracy : ACCURACIES) {
+                        name = "integral," + function + "," + rule + "," + solutionType + "," + accuracy;
+
+                        if (name.contains(filter)) {
+                            print(name, measure(functions[i], counted -> reimannSum.getReimannSum(
+                                    counted, bounds, accuracy, rule, solutionType
+                            ).getValue()));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private String measure(Function function, Operation operation) {
+        CountedFunction counted = new CountedFunction(function);
+
+        try {
+            // one counted run for evaluations per operation, then the original function for timing
+            sink = operation.run(counted);
+            long evaluationsCount = counted.count.sum();
+
+            long start = System.nanoTime();
+            while (System.nanoTime() - start < warmupNanos) {
+                sink = operation.run(function);
+            }
+
+            long allocatedBefore = getAllocatedBytes();
+            long operationsCount = 0L;
+            long elapsed;
+
+            start = System.nanoTime();
+            do {
+                sink = operation.run(function);
+                operationsCount++;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < measurementNanos);
+
+            long allocated = getAllocatedBytes() - allocatedBefore;
+            double nanosPerOperation = (double) elapsed / operationsCount;
+
+            return String.format(
+                    Locale.ROOT,
+                    "%.2f,%.1f,%d,%.2f,%s,ok",
+                    1e9 / nanosPerOperation,
+                    nanosPerOperation,
+                    evaluationsCount,
+                    evaluationsCount == 0L ? Double.NaN : nanosPerOperation / evaluationsCount,
+                    allocated < 0L ? "" : String.format(Locale.ROOT, "%.0f", (double) allocated / operationsCount)
+            );
+        } catch (Exception e) {
+            return ",,,,," + e.getClass().getSimpleName();
+        }
+    }
+
+    // -1 when the JVM can't count allocations of a thread
+    private long getAllocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        return -1L;
+    }
+
+    private static void print(String name, String result) {
+        System.out.println(name + "," + result);
+        System.out.flush();
+    }
+
+    private interface Operation {
+        double run(Function function) throws Exception;
+    }
+
+    private static class CountedFunction implements Function {
+        private final Function function;
+        private final LongAdder count = new LongAdder();
+
+        CountedFunction(Function function) {
+            this.function = function;
+        }
+
+        @Override
+        public double get(double argument) {
+            count.increment();
+            return function.get(argument);
+        }
+
+        @Override
+        public void get(double[] arguments, double[] values, int count) {
+            this.count.add(count);
+            function.get(arguments, values, count);
+        }
+
+        @Override
+        public Interval[] getNotAllowedScope() {
+            return function.getNotAllowedScope();
+        }
+
+        @Override
+        public ScopeIndex getScopeIndex() {
+            return function.getScopeIndex();
+        }
+
+        @Override
+        public TypeOfSingularity getSingularityType() {
+            return function.getSingularityType();
+        }
+
+        @Override
+        public Function get2Derivative() throws NotImplementedMethodException {
+            return function.get2Derivative();
+        }
+
+        @Override
+        public Function get4Derivative() throws NotImplementedMethodException {
+            return function.get4Derivative();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+import exception.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+public class ReimannSumCache {
+    static private final int DEFAULT_CAPACITY = 1024;
+
+    private final ReimannSum reimannSum;
+    private final int capacity;
+    private final long timeToLiveNanos;
+    private final LinkedHashMap<Key, CacheEntry> entries;
+
+    private long hitsCount = 0L;
+    private long missesCount = 0L;
+    private long evictionsCount = 0L;
+    private long expirationsCount = 0L;
+
+    public ReimannSumCache(ReimannSum reimannSum) {
+        this(reimannSum, DEFAULT_CAPACITY, 0L, TimeUnit.MILLISECONDS);
+    }
+
+    // time to live 0 means that entries never expire
+    public ReimannSumCache(ReimannSum reimannSum, int capacity, long timeToLive, TimeUnit unit) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity of cache should be positive!");
+        }
+
+        this.reimannSum = reimannSum;
+        this.capacity = capacity;
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+        this.entries = new LinkedHashMap<Key, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CacheEntry> eldest) {
+                if (size() > ReimannSumCache.this.capacity) {
+                    evictionsCount++;
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    public ReimannSumAnswer getReimannSum(
+            Function function,
+            Bounds bounds,
+            double accuracy,
+            ReimannSumRule rule,
+            TypeOfSolution solutionType,
+            TypeOfExecution executionType
+    ) throws
+            NotImplementedMethodException,
+            UnknownReimannSumRuleException,
+            NotAllowedScopeException,
+            NotSolvableIntegralException {
+        Key key = new Key(function, bounds, rule, solutionType);
+        ReimannSumAnswer answer = getCached(key, accuracy);
+
+        if (answer != null) {
+            return answer;
+        }
+
+        // integration runs outside of the lock, concurrent misses of one key may both compute
+        answer = reimannSum.getReimannSum(function, bounds, accuracy, rule, solutionType, executionType);
+        put(key, new CacheEntry(answer, accuracy, System.nanoTime()));
+
+        return answer;
+    }
+
+    public ReimannSumAnswer getReimannSum(
+            Function function,
+            Bounds bounds,
+            double accuracy,
+            ReimannSumRule rule,
+            TypeOfSolution solutionType
+    ) throws
+            NotImplementedMethodException,
+            UnknownReimannSumRuleException,
+            NotAllowedScopeException,
+            NotSolvableIntegralException {
+        return getReimannSum(
+                function,
+                bounds,
+                accuracy,
+                rule,
+                solutionType,
+                TypeOfExecution.SEQUENTIAL_EXECUTION
+        );
+    }
+
+    public synchronized long getHitsCount() {
+        return hitsCount;
+    }
+
+    public synchronized long getMissesCount() {
+        return missesCount;
+    }
+
+    public synchronized long getEvictionsCount() {
+        return evictionsCount;
+    }
+
+    public synchronized long getExpirationsCount() {
+        return expirationsCount;
+    }
+
+    public synchronized double getHitRate() {
+        long requestsCount = hitsCount + missesCount;
+        return requestsCount == 0L ? 0d : (double) hitsCount / requestsCount;
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private synchronized ReimannSumAnswer getCached(Key key, double accuracy) {
+        CacheEntry entry = entries.get(key);
+
+        if (entry != null && isExpired(entry)) {
+            entries.remove(key);
+            expirationsCount++;
+            entry = null;
+        }
+
+        // an answer computed to a finer accuracy also serves every coarser request
+        if (entry != null && entry.accuracy <= accuracy) {
+            hitsCount++;
+            return entry.answer;
+        }
+
+        missesCount++;
+        return null;
+    }
+
+    private synchronized void put(Key key, CacheEntry entry) {
+        CacheEntry cached = entries.get(key);
+
+        if (cached == null || isExpired(cached) || entry.accuracy < cached.accuracy) {
+            entries.put(key, entry);
+        }
+    }
+
+    private boolean isExpired(CacheEntry entry) {
+        return timeToLiveNanos > 0L && System.nanoTime() - entry.createdAt > timeToLiveNanos;
+    }
+
+    private static class CacheEntry {
+        private final ReimannSumAnswer answer;
+        private final double accuracy;
+        private final long createdAt;
+
+        CacheEntry(ReimannSumAnswer answer, double accuracy, long createdAt) {
+            this.answer = answer;
+            this.accuracy = accuracy;
+            this.createdAt = createdAt;
+        }
+    }
+
+    static class Key {
+        private final Function function;
+        private final double leftBound;
+        private final double rightBound;
+        private final ReimannSumRule rule;
+        private final TypeOfSolution solutionType;
+
+        Key(Function function, Bounds bounds, ReimannSumRule rule, TypeOfSolution solutionType) {
+            this.function = function;
+            this.leftBound = bounds.getLeftBound();
+            this.rightBound = bounds.getRightBound();
+            this.rule = rule;
+            this.solutionType = solutionType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Double.compare(key.leftBound, leftBound) == 0 &&
+                    Double.compare(key.rightBound, rightBound) == 0 &&
+                    function.equals(key.function) &&
+                    rule == key.rule &&
+                    solutionType == key.solutionType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(function, leftBound, rightBound, rule, solutionType);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import exception.NotAllowedScopeException;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class ReimannSumExecutor {
+    // below this count of sections forking costs more than it saves
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    // leaf size of the reduction tree; it must not depend on the pool, so the result does not either
+    static final int CHUNK_SIZE = 1 << 13;
+
+    private final TypeOfExecution executionType;
+    private final TypeOfSummation summationType;
+    private final ForkJoinPool pool;
+
+    public ReimannSumExecutor(TypeOfExecution executionType, TypeOfSummation summationType, ForkJoinPool pool) {
+        this.executionType = executionType;
+        this.summationType = summationType;
+        this.pool = pool;
+    }
+
+    public TypeOfExecution getExecutionType() {
+        return executionType;
+    }
+
+    public double getSum(ReimannSumKernel kernel, Function function, double leftBound, double step, int n)
+            throws NotAllowedScopeException {
+        double sum;
+
+        if (executionType == TypeOfExecution.SEQUENTIAL_EXECUTION || n < PARALLEL_THRESHOLD) {
+            sum = kernel.getSum(function, leftBound, step, 0, n, summationType);
+        } else {
+            sum = pool.invoke(new SumTask(kernel, function, leftBound, step, 0, n, n, summationType));
+        }
+
+        if (Double.isNaN(sum)) {
+            throw new NotAllowedScopeException();
+        }
+
+        return sum;
+    }
+
+    private static class SumTask extends RecursiveTask<Double> {
+        private final ReimannSumKernel kernel;
+        private final Function function;
+        private final double leftBound;
+        private final double step;
+        private final int from;
+        private final int to;
+        private final int end;
+        private final TypeOfSummation summationType;
+
+        SumTask(
+                ReimannSumKernel kernel,
+                Function function,
+                double leftBound,
+                double step,
+                int from,
+                int to,
+                int end,
+                TypeOfSummation summationType
+        ) {
+            this.kernel = kernel;
+            this.function = function;
+            this.leftBound = leftBound;
+            this.step = step;
+            this.from = from;
+            this.to = to;
+            this.end = end;
+            this.summationType = summationType;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= CHUNK_SIZE) {
+                // a node shared by two chunks belongs to the right one, so it is evaluated once
+                return kernel.getPartSum(function, leftBound, step, from, to, from == 0, to == end, summationType);
+            }
+
+            int middle = from + (to - from) / 2;
+            SumTask left = new SumTask(kernel, function, leftBound, step, from, middle, end, summationType);
+            SumTask right = new SumTask(kernel, function, leftBound, step, middle, to, end, summationType);
+
+            left.fork();
+            double rightSum = right.compute();
+
+            return left.join() + rightSum;
+        }
+    }
+}
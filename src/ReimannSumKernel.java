@@ -0,0 +1,242 @@
+import exception.NotImplementedSolutionException;
+
+public interface ReimannSumKernel {
+    int BLOCK_SIZE = 256;
+    // order of GAUSS_LEGENDRE_KERNEL, ReimannSum may be given another one
+    int GAUSS_LEGENDRE_ORDER = 2;
+
+    ReimannSumKernel LEFT_KERNEL = new ReimannSumKernel() {
+        @Override
+        public double getSum(
+                Function function,
+                double leftBound,
+                double step,
+                int from,
+                int to,
+                TypeOfSummation summationType
+        ) {
+            return getNodesSum(function, leftBound, step, 0d, from, to, summationType);
+        }
+    };
+
+    ReimannSumKernel RIGHT_KERNEL = new ReimannSumKernel() {
+        @Override
+        public double getSum(
+                Function function,
+                double leftBound,
+                double step,
+                int from,
+                int to,
+                TypeOfSummation summationType
+        ) {
+            return getNodesSum(function, leftBound, step, 0d, from + 1, to + 1, summationType);
+        }
+    };
+
+    ReimannSumKernel MIDPOINT_KERNEL = new ReimannSumKernel() {
+        @Override
+        public double getSum(
+                Function function,
+                double leftBound,
+                double step,
+                int from,
+                int to,
+                TypeOfSummation summationType
+        ) {
+            return getNodesSum(function, leftBound, step, 0.5d, from, to, summationType);
+        }
+    };
+
+    ReimannSumKernel TRAPEZOIDAL_KERNEL = new ReimannSumKernel() {
+        @Override
+        public long getEvaluationsCount(int n) {
+            return n + 1L;
+        }
+
+        @Override
+        public double getSum(
+                Function function,
+                double leftBound,
+                double step,
+                int from,
+                int to,
+                TypeOfSummation summationType
+        ) {
+            return getPartSum(function, leftBound, step, from, to, true, true, summationType);
+        }
+
+        @Override
+        public double getPartSum(
+                Function function,
+                double leftBound,
+                double step,
+                int from,
+                int to,
+                boolean isFirst,
+                boolean isLast,
+                TypeOfSummation summationType
+        ) {
+            double left = function.getCountableValue(leftBound + from * step);
+            double right = isLast ? function.getCountableValue(leftBound + to * step) : 0d;
+
+            return (isFirst ? left / 2 : left) + right / 2 +
+                    getNodesSum(function, leftBound, step, 0d, from + 1, to, summationType);
+        }
+    };
+
+    ReimannSumKernel SIMPSONS_KERNEL = new ReimannSumKernel() {
+        @Override
+        public long getEvaluationsCount(int n) {
+            return 2L * n + 1L;
+        }
+
+        @Override
+        public double getSum(
+                Function function,
+                double leftBound,
+                double step,
+                int from,
+                int to,
+                TypeOfSummation summationType
+        ) {
+            return getPartSum(function, leftBound, step, from, to, true, true, summationType);
+        }
+
+        @Override
+        public double getPartSum(
+                Function function,
+                double leftBound,
+                double step,
+                int from,
+                int to,
+                boolean isFirst,
+                boolean isLast,
+                TypeOfSummation summationType
+        ) {
+            double left = function.getCountableValue(leftBound + from * step);
+            double right = isLast ? function.getCountableValue(leftBound + to * step) : 0d;
+            double inner = getNodesSum(function, leftBound, step, 0d, from + 1, to, summationType);
+            double midpoints = getNodesSum(function, leftBound, step, 0.5d, from, to, summationType);
+
+            return ((isFirst ? left : 2 * left) + right + 2 * inner + 4 * midpoints) / 6;
+        }
+    };
+
+    ReimannSumKernel GAUSS_LEGENDRE_KERNEL = ofGaussLegendre(GAUSS_LEGENDRE_ORDER);
+
+    /**
+     * Sum over sections [from, to) of the grid leftBound + i * step, in units of step:
+     * multiply the result by step to get the integral over these sections.
+     * Not countable values of the function make the sum NaN, kernels never throw.
+     */
+    double getSum(
+            Function function,
+            double leftBound,
+            double step,
+            int from,
+            int to,
+            TypeOfSummation summationType
+    );
+
+    /**
+     * Sum over sections [from, to) as one of the adjacent parts of a sum, in units of step.
+     * The left bound of a part is a node of its own, the right one belongs to the next part:
+     * isFirst and isLast tell the parts holding the bounds of the whole sum, whose nodes are weighted as such.
+     * The sum of the parts is the sum over the whole range with every node evaluated once.
+     */
+    default double getPartSum(
+            Function function,
+            double leftBound,
+            double step,
+            int from,
+            int to,
+            boolean isFirst,
+            boolean isLast,
+            TypeOfSummation summationType
+    ) {
+        return getSum(function, leftBound, step, from, to, summationType);
+    }
+
+    // count of function evaluations of a sum over n sections
+    default long getEvaluationsCount(int n) {
+        return n;
+    }
+
+    static ReimannSumKernel of(ReimannSumRule rule) throws NotImplementedSolutionException {
+        switch (rule) {
+            case LEFT_RULE:
+                return LEFT_KERNEL;
+            case RIGHT_RULE:
+                return RIGHT_KERNEL;
+            case MIDPOINT_RULE:
+                return MIDPOINT_KERNEL;
+            case TRAPEZOIDAL_RULE:
+                return TRAPEZOIDAL_KERNEL;
+            case SIMPSONS_RULE:
+                return SIMPSONS_KERNEL;
+            case GAUSS_LEGENDRE_RULE:
+                return GAUSS_LEGENDRE_KERNEL;
+            default:
+                throw new NotImplementedSolutionException();
+        }
+    }
+
+    // Gauss-Legendre rule of the given order in every section
+    static ReimannSumKernel ofGaussLegendre(int order) {
+        GaussLegendreTable table = GaussLegendreTable.of(order);
+
+        return new ReimannSumKernel() {
+            @Override
+            public long getEvaluationsCount(int n) {
+                return (long) table.getOrder() * n;
+            }
+
+            @Override
+            public double getSum(
+                    Function function,
+                    double leftBound,
+                    double step,
+                    int from,
+                    int to,
+                    TypeOfSummation summationType
+            ) {
+                double sum = 0d;
+
+                for (int k = 0; k < table.getOrder(); k++) {
+                    double offset = (table.getNode(k) + 1) / 2;
+                    double nodesSum = getNodesSum(function, leftBound, step, offset, from, to, summationType);
+                    sum += nodesSum * table.getWeight(k) / 2;
+                }
+
+                return sum;
+            }
+        };
+    }
+
+    static double getNodesSum(
+            Function function,
+            double leftBound,
+            double step,
+            double offset,
+            int from,
+            int to,
+            TypeOfSummation summationType
+    ) {
+        double[] arguments = new double[Math.min(BLOCK_SIZE, Math.max(to - from, 0))];
+        double[] values = new double[arguments.length];
+        Summator summator = Summator.of(summationType);
+
+        for (int blockFrom = from; blockFrom < to; blockFrom += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, to - blockFrom);
+
+            for (int i = 0; i < count; i++) {
+                arguments[i] = leftBound + (blockFrom + i + offset) * step;
+            }
+
+            function.getValues(arguments, values, count);
+            summator.add(values, count);
+        }
+
+        return summator.getSum();
+    }
+}
@@ -3,5 +3,6 @@ public enum ReimannSumRule {
     RIGHT_RULE,
     MIDPOINT_RULE,
     TRAPEZOIDAL_RULE,
-    SIMPSONS_RULE
+    SIMPSONS_RULE,
+    GAUSS_LEGENDRE_RULE
 }
@@ -0,0 +1,263 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exception.InvalidFormulaException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP endpoint on the loopback interface:
+ * GET /integrate?job=<job line> or POST /integrate with job lines of IntegrationJob in the body,
+ * answers are JSON lines in the order of the jobs. GET /stats shows counts of jobs and integrations.
+ */
+public class ReimannSumServer {
+    static private final long DEFAULT_COALESCING_WINDOW_MILLIS = 5L;
+
+    private final Function[] functions;
+    private final AsyncReimannSum asyncReimannSum;
+    private final long coalescingWindowMillis;
+    private final ConcurrentMap<ReimannSumCache.Key, Batch> batches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reimann-sum-server-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LongAdder jobsCount = new LongAdder();
+    private final LongAdder integrationsCount = new LongAdder();
+
+    private HttpServer server;
+    private ExecutorService handlers;
+
+    public ReimannSumServer(Function[] functions, ReimannSum reimannSum) {
+        this(functions, new AsyncReimannSum(reimannSum), DEFAULT_COALESCING_WINDOW_MILLIS);
+    }
+
+    public ReimannSumServer(Function[] functions, AsyncReimannSum asyncReimannSum, long coalescingWindowMillis) {
+        this.functions = functions;
+        this.asyncReimannSum = asyncReimannSum;
+        this.coalescingWindowMillis = coalescingWindowMillis;
+    }
+
+    // port 0 takes any free port, see getPort()
+    public synchronized void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        handlers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "reimann-sum-server-handler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server.createContext("/integrate", this::handleIntegrate);
+        server.createContext("/stats", this::handleStats);
+        server.setExecutor(handlers);
+        server.start();
+    }
+
+    public synchronized void stop() {
+        server.stop(0);
+        handlers.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getJobsCount() {
+        return jobsCount.sum();
+    }
+
+    public long getIntegrationsCount() {
+        return integrationsCount.sum();
+    }
+
+    // jobs of one function, bounds, rule and solution arrived within the window share one integration
+    public CompletableFuture<ReimannSumAnswer> submit(IntegrationJob job) {
+        ReimannSumCache.Key key = new ReimannSumCache.Key(
+                job.getFunction(),
+                job.getBounds(),
+                job.getRule(),
+                job.getSolutionType()
+        );
+        CompletableFuture<ReimannSumAnswer> result = new CompletableFuture<>();
+        Batch[] opened = new Batch[1];
+
+        jobsCount.increment();
+        batches.compute(key, (k, batch) -> {
+            if (batch == null) {
+                batch = new Batch(job);
+                opened[0] = batch;
+            }
+
+            batch.add(job.getAccuracy(), result);
+            return batch;
+        });
+
+        if (opened[0] != null) {
+            timer.schedule(() -> flush(key, opened[0]), coalescingWindowMillis, TimeUnit.MILLISECONDS);
+        }
+
+        return result;
+    }
+
+    private void flush(ReimannSumCache.Key key, Batch batch) {
+        // jobs are only added inside compute(), so after removal the batch is closed
+        batches.remove(key, batch);
+        integrationsCount.increment();
+
+        IntegrationJob job = batch.job;
+
+        // the finest accuracy of the batch serves every coarser job as well
+        asyncReimannSum.getReimannSum(
+                job.getFunction(),
+                job.getBounds(),
+                batch.accuracy,
+                job.getRule(),
+                job.getSolutionType()
+        ).whenComplete((answer, e) -> {
+            for (CompletableFuture<ReimannSumAnswer> result : batch.results) {
+                if (e == null) {
+                    result.complete(answer);
+                } else {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    private void handleIntegrate(HttpExchange exchange) throws IOException {
+        try {
+            List<String> lines = new ArrayList<>();
+
+            if (exchange.getRequestMethod().equals("GET")) {
+                String job = getParameter(exchange.getRequestURI().getRawQuery(), "job");
+
+                if (job == null) {
+                    send(exchange, 400, "{\"status\":\"missing parameter 'job'\"}");
+                    return;
+                }
+
+                lines.add(job);
+            } else if (exchange.getRequestMethod().equals("POST")) {
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)
+                );
+
+                String line;
+                while ((line = in.readLine()) != null) {
+                    lines.add(line);
+                }
+            } else {
+                send(exchange, 405, "{\"status\":\"method not allowed\"}");
+                return;
+            }
+
+            List<CompletableFuture<String>> results = new ArrayList<>();
+
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i).trim();
+
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    results.add(getResult(i + 1, line));
+                }
+            }
+
+            StringBuilder response = new StringBuilder();
+
+            for (CompletableFuture<String> result : results) {
+                response.append(result.join()).append('\n');
+            }
+
+            send(exchange, 200, response.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try {
+            send(exchange, 200, "{\"jobs\":" + getJobsCount() + ",\"integrations\":" + getIntegrationsCount() + "}\n");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private CompletableFuture<String> getResult(int lineNumber, String line) {
+        IntegrationJob job;
+
+        try {
+            job = IntegrationJob.parse(line, functions);
+        } catch (IllegalArgumentException | InvalidFormulaException e) {
+            return CompletableFuture.completedFuture(IntegrationJob.toJson(lineNumber, "bad input: " + e.getMessage()));
+        }
+
+        return submit(job).handle((answer, e) -> {
+            if (e == null) {
+                return IntegrationJob.toJson(lineNumber, answer);
+            }
+
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            return IntegrationJob.toJson(lineNumber, IntegrationJob.getStatus(cause));
+        });
+    }
+
+    private static String getParameter(String query, String name) throws IOException {
+        if (query == null) {
+            return null;
+        }
+
+        for (String parameter : query.split("&")) {
+            int index = parameter.indexOf('=');
+
+            if (index > 0 && parameter.substring(0, index).equals(name)) {
+                return URLDecoder.decode(parameter.substring(index + 1), "UTF-8");
+            }
+        }
+
+        return null;
+    }
+
+    private static void send(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static class Batch {
+        private final IntegrationJob job;
+        private final List<CompletableFuture<ReimannSumAnswer>> results = new ArrayList<>();
+        private double accuracy;
+
+        Batch(IntegrationJob job) {
+            this.job = job;
+            this.accuracy = job.getAccuracy();
+        }
+
+        void add(double accuracy, CompletableFuture<ReimannSumAnswer> result) {
+            this.accuracy = Math.min(this.accuracy, accuracy);
+            results.add(result);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregate counters of all integrations, enabled by -Dreimannsum.statistics=true
+ * and published as the MBean 'ReimannSum:type=Statistics'.
+ * Callers check ENABLED first, so disabled counters are removed by the JIT.
+ */
+public class ReimannSumStatistics implements ReimannSumStatisticsMBean {
+    public static final boolean ENABLED = Boolean.getBoolean("reimannsum.statistics");
+    public static final String OBJECT_NAME = "ReimannSum:type=Statistics";
+
+    // level 0 is the first doubling of a Runge or Romberg grid
+    static private final int LEVELS_COUNT = 32;
+    static private final ReimannSumStatistics INSTANCE = new ReimannSumStatistics();
+
+    private final LongAdder evaluationsCount = new LongAdder();
+    private final LongAdder fallbacksCount = new LongAdder();
+    private final LongAdder integrationsCount = new LongAdder();
+    private final LongAdder failedIntegrationsCount = new LongAdder();
+    private final LongAdder integrationNanos = new LongAdder();
+    private final LongAdder maxValueCount = new LongAdder();
+    private final LongAdder maxValueNanos = new LongAdder();
+    private final LongAdder[] levelCounts = new LongAdder[LEVELS_COUNT];
+    private final LongAdder[] levelNanos = new LongAdder[LEVELS_COUNT];
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                System.err.println("Statistics are not published: " + e);
+            }
+        }
+    }
+
+    private ReimannSumStatistics() {
+        for (int i = 0; i < LEVELS_COUNT; i++) {
+            levelCounts[i] = new LongAdder();
+            levelNanos[i] = new LongAdder();
+        }
+    }
+
+    public static ReimannSumStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    static void addEvaluations(long count) {
+        INSTANCE.evaluationsCount.add(count);
+    }
+
+    static void addFallback() {
+        INSTANCE.fallbacksCount.increment();
+    }
+
+    static void addIntegration(long nanos, boolean isFailed) {
+        INSTANCE.integrationsCount.increment();
+        INSTANCE.integrationNanos.add(nanos);
+
+        if (isFailed) {
+            INSTANCE.failedIntegrationsCount.increment();
+        }
+    }
+
+    static void addMaxValue(long nanos) {
+        INSTANCE.maxValueCount.increment();
+        INSTANCE.maxValueNanos.add(nanos);
+    }
+
+    static void addRefinementLevel(int level, long nanos) {
+        int index = Math.min(level, LEVELS_COUNT - 1);
+        INSTANCE.levelCounts[index].increment();
+        INSTANCE.levelNanos[index].add(nanos);
+    }
+
+    @Override
+    public long getEvaluationsCount() {
+        return evaluationsCount.sum();
+    }
+
+    @Override
+    public long getFallbacksCount() {
+        return fallbacksCount.sum();
+    }
+
+    @Override
+    public long getIntegrationsCount() {
+        return integrationsCount.sum();
+    }
+
+    @Override
+    public long getFailedIntegrationsCount() {
+        return failedIntegrationsCount.sum();
+    }
+
+    @Override
+    public long getIntegrationNanos() {
+        return integrationNanos.sum();
+    }
+
+    @Override
+    public long getMaxValueCount() {
+        return maxValueCount.sum();
+    }
+
+    @Override
+    public long getMaxValueNanos() {
+        return maxValueNanos.sum();
+    }
+
+    @Override
+    public long[] getRefinementLevelCounts() {
+        return getSums(levelCounts);
+    }
+
+    @Override
+    public long[] getRefinementLevelNanos() {
+        return getSums(levelNanos);
+    }
+
+    @Override
+    public void reset() {
+        evaluationsCount.reset();
+        fallbacksCount.reset();
+        integrationsCount.reset();
+        failedIntegrationsCount.reset();
+        integrationNanos.reset();
+        maxValueCount.reset();
+        maxValueNanos.reset();
+
+        for (int i = 0; i < LEVELS_COUNT; i++) {
+            levelCounts[i].reset();
+            levelNanos[i].reset();
+        }
+    }
+
+    // trailing levels that were never reached are cut off
+    private static long[] getSums(LongAdder[] adders) {
+        int length = LEVELS_COUNT;
+        while (length > 0 && adders[length - 1].sum() == 0L) {
+            length--;
+        }
+
+        long[] res = new long[length];
+        for (int i = 0; i < length; i++) {
+            res[i] = adders[i].sum();
+        }
+
+        return res;
+    }
+}
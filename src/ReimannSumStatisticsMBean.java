@@ -0,0 +1,21 @@
+public interface ReimannSumStatisticsMBean {
+    long getEvaluationsCount();
+
+    long getFallbacksCount();
+
+    long getIntegrationsCount();
+
+    long getFailedIntegrationsCount();
+
+    long getIntegrationNanos();
+
+    long getMaxValueCount();
+
+    long getMaxValueNanos();
+
+    long[] getRefinementLevelCounts();
+
+    long[] getRefinementLevelNanos();
+
+    void reset();
+}
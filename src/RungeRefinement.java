@@ -0,0 +1,120 @@
+import exception.NotAllowedScopeException;
+import exception.NotImplementedSolutionException;
+
+public class RungeRefinement {
+    private final Function function;
+    private final Bounds bounds;
+    private final ReimannSumRule rule;
+    private final ReimannSumKernel kernel;
+    private final ReimannSumExecutor executor;
+
+    private int n;
+    private int level = 0;
+    private long evaluationsCount = 0L;
+    private double nodesSum;
+    private double midpointsSum;
+
+    public RungeRefinement(
+            Function function,
+            Bounds bounds,
+            ReimannSumRule rule,
+            int n,
+            ReimannSumExecutor executor
+    ) throws NotImplementedSolutionException, NotAllowedScopeException {
+        this(function, bounds, rule, ReimannSumKernel.of(rule), n, executor);
+    }
+
+    // kernel computes the sums of the rule, e.g. a Gauss-Legendre kernel of another order
+    public RungeRefinement(
+            Function function,
+            Bounds bounds,
+            ReimannSumRule rule,
+            ReimannSumKernel kernel,
+            int n,
+            ReimannSumExecutor executor
+    ) throws NotAllowedScopeException {
+        this.function = function;
+        this.bounds = bounds;
+        this.rule = rule;
+        this.kernel = kernel;
+        this.executor = executor;
+        this.n = n;
+
+        if (rule == ReimannSumRule.SIMPSONS_RULE) {
+            nodesSum = getNodesSum(ReimannSumKernel.TRAPEZOIDAL_KERNEL);
+            midpointsSum = getNodesSum(ReimannSumKernel.MIDPOINT_KERNEL);
+        } else {
+            nodesSum = getNodesSum(kernel);
+        }
+    }
+
+    public static boolean isNested(ReimannSumRule rule) {
+        switch (rule) {
+            case LEFT_RULE:
+            case RIGHT_RULE:
+            case TRAPEZOIDAL_RULE:
+            case SIMPSONS_RULE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public void refine() throws NotAllowedScopeException {
+        long start = ReimannSumStatistics.ENABLED ? System.nanoTime() : 0L;
+
+        if (rule == ReimannSumRule.SIMPSONS_RULE) {
+            // the midpoints become trapezoidal nodes of the doubled grid, only its own midpoints are new
+            nodesSum += midpointsSum;
+            n <<= 1;
+            midpointsSum = getNodesSum(ReimannSumKernel.MIDPOINT_KERNEL);
+        } else if (isNested(rule)) {
+            // nodes of the doubled grid are the current nodes plus the midpoints of the current sections
+            nodesSum += getNodesSum(ReimannSumKernel.MIDPOINT_KERNEL);
+            n <<= 1;
+        } else {
+            n <<= 1;
+            nodesSum = getNodesSum(kernel);
+        }
+
+        if (ReimannSumStatistics.ENABLED) {
+            ReimannSumStatistics.addRefinementLevel(level++, System.nanoTime() - start);
+        }
+    }
+
+    public double getValue() {
+        if (rule == ReimannSumRule.SIMPSONS_RULE) {
+            return (nodesSum + 2 * midpointsSum) / 3 * getStep();
+        }
+
+        return nodesSum * getStep();
+    }
+
+    public int getCountOfSections() {
+        return n;
+    }
+
+    public long getEvaluationsCount() {
+        return evaluationsCount;
+    }
+
+    // count of function evaluations the next refine() will take
+    public long getRefinementEvaluationsCount() {
+        if (rule == ReimannSumRule.SIMPSONS_RULE) {
+            return ReimannSumKernel.MIDPOINT_KERNEL.getEvaluationsCount(n << 1);
+        } else if (isNested(rule)) {
+            return ReimannSumKernel.MIDPOINT_KERNEL.getEvaluationsCount(n);
+        } else {
+            return kernel.getEvaluationsCount(n << 1);
+        }
+    }
+
+    private double getStep() {
+        return bounds.getLength() / n;
+    }
+
+    private double getNodesSum(ReimannSumKernel kernel) throws NotAllowedScopeException {
+        evaluationsCount += kernel.getEvaluationsCount(n);
+        return executor.getSum(kernel, function, bounds.getLeftBound(), getStep(), n);
+    }
+}
@@ -0,0 +1,144 @@
+import exception.InvalidIntervalException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+public class ScopeIndex {
+    static private final Map<Function, ScopeIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+    static private final ScopeIndex EMPTY_INDEX = new ScopeIndex(new Interval[0]);
+
+    // disjoint not allowed ranges sorted by bounds, and sorted excluded points
+    private final Interval[] ranges;
+    private final double[] points;
+
+    public ScopeIndex(Interval[] notAllowedScope) {
+        List<Interval> sortedRanges = new ArrayList<>();
+        List<Double> sortedPoints = new ArrayList<>();
+
+        for (Interval interval : notAllowedScope) {
+            if (interval == null) continue;
+
+            if (interval.isPoint()) {
+                sortedPoints.add(interval.getLeftBound());
+            } else {
+                sortedRanges.add(interval);
+            }
+        }
+
+        sortedRanges.sort((a, b) -> Double.compare(a.getLeftBound(), b.getLeftBound()));
+        ranges = merge(sortedRanges).toArray(new Interval[0]);
+        points = sortedPoints.stream().mapToDouble(Double::doubleValue).sorted().distinct().toArray();
+    }
+
+    public static ScopeIndex of(Function function) {
+        ScopeIndex index = INDEXES.get(function);
+
+        if (index == null) {
+            Interval[] notAllowedScope = function.getNotAllowedScope();
+
+            // nothing to build, so short-lived functions without exclusions don't fill the map
+            if (notAllowedScope.length == 0) {
+                return EMPTY_INDEX;
+            }
+
+            index = new ScopeIndex(notAllowedScope);
+            INDEXES.put(function, index);
+        }
+
+        return index;
+    }
+
+    // O(log k): bounds are treated as an open interval, like Interval.isIntersect(Bounds)
+    public boolean isIntersect(Bounds bounds) {
+        double leftBound = Math.min(bounds.getLeftBound(), bounds.getRightBound());
+        int index = getFirstRangeEndingAfter(leftBound);
+
+        for (int i = Math.max(index - 1, 0); i < Math.min(index + 2, ranges.length); i++) {
+            if (ranges[i].isIntersect(bounds)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // excluded points strictly inside the bounds, in ascending order
+    public double[] getInnerPoints(Bounds bounds) {
+        double leftBound = Math.min(bounds.getLeftBound(), bounds.getRightBound());
+        double rightBound = Math.max(bounds.getLeftBound(), bounds.getRightBound());
+
+        int from = Arrays.binarySearch(points, leftBound);
+        from = from < 0 ? -from - 1 : from + 1;
+
+        int to = Arrays.binarySearch(points, rightBound);
+        to = to < 0 ? -to - 1 : to;
+
+        return from < to ? Arrays.copyOfRange(points, from, to) : new double[0];
+    }
+
+    public boolean hasInnerPoints(Bounds bounds) {
+        return getInnerPoints(bounds).length != 0;
+    }
+
+    private int getFirstRangeEndingAfter(double argument) {
+        int left = 0;
+        int right = ranges.length;
+
+        while (left < right) {
+            int middle = (left + right) >>> 1;
+
+            if (ranges[middle].getRightBound() < argument) {
+                left = middle + 1;
+            } else {
+                right = middle;
+            }
+        }
+
+        return left;
+    }
+
+    private static List<Interval> merge(List<Interval> sortedRanges) {
+        List<Interval> merged = new ArrayList<>();
+
+        for (Interval range : sortedRanges) {
+            Interval last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+
+            if (last == null || !last.isIntersect(range)) {
+                merged.add(range);
+                continue;
+            }
+
+            boolean isLeftIncluded = last.getLeftBound() == range.getLeftBound()
+                    ? last.isLeftIncluded() || range.isLeftIncluded()
+                    : last.isLeftIncluded();
+
+            double rightBound;
+            boolean isRightIncluded;
+
+            if (last.getRightBound() == range.getRightBound()) {
+                rightBound = last.getRightBound();
+                isRightIncluded = last.isRightIncluded() || range.isRightIncluded();
+            } else if (last.getRightBound() > range.getRightBound()) {
+                rightBound = last.getRightBound();
+                isRightIncluded = last.isRightIncluded();
+            } else {
+                rightBound = range.getRightBound();
+                isRightIncluded = range.isRightIncluded();
+            }
+
+            try {
+                merged.set(merged.size() - 1,
+                        new Interval(last.getLeftBound(), isLeftIncluded, rightBound, isRightIncluded));
+            } catch (InvalidIntervalException e) {
+                System.err.println(e);
+                System.err.println("Unavailable code!");
+            }
+        }
+
+        return merged;
+    }
+}
@@ -0,0 +1,121 @@
+import exception.NotImplementedMethodException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits bounds at the excluded points of a function strictly inside them.
+ * A removable singularity only ends the pieces, so it is never a node but at a bound.
+ * A pole is integrated as a principal value: the window [c - d, c + d] around the pole c turns into
+ * the integral of f(c + t) + f(c - t) over [0, d], where the odd part of the pole cancels.
+ */
+public class SingularitySplitter {
+    private SingularitySplitter() {
+    }
+
+    // points are ascending and strictly inside of [leftBound, rightBound]
+    public static List<Piece> split(Function function, double leftBound, double rightBound, double[] points) {
+        List<Piece> pieces = new ArrayList<>();
+        double cursor = leftBound;
+
+        for (int i = 0; i < points.length; i++) {
+            double point = points[i];
+
+            if (function.getSingularityType() == TypeOfSingularity.REMOVABLE_SINGULARITY) {
+                addPiece(pieces, function, cursor, point, point - cursor);
+                cursor = point;
+                continue;
+            }
+
+            // the window of a pole reaches the nearest bound or the middle between two poles
+            double left = i == 0 ? leftBound : (points[i - 1] + point) / 2;
+            double right = i == points.length - 1 ? rightBound : (point + points[i + 1]) / 2;
+            double delta = Math.min(point - left, right - point);
+
+            if (Double.isInfinite(delta)) {
+                delta = 1d;
+            }
+
+            addPiece(pieces, function, cursor, point - delta, point - delta - cursor);
+            addPiece(pieces, new SymmetricFunction(function, point), 0d, delta, 2 * delta);
+            cursor = point + delta;
+        }
+
+        addPiece(pieces, function, cursor, rightBound, rightBound - cursor);
+
+        // shares of the accuracy follow the lengths, an infinite range is shared equally
+        double length = 0d;
+        for (Piece piece : pieces) {
+            length += piece.length;
+        }
+
+        for (Piece piece : pieces) {
+            piece.share = Double.isInfinite(length) ? 1d / pieces.size() : piece.length / length;
+        }
+
+        return pieces;
+    }
+
+    private static void addPiece(List<Piece> pieces, Function function, double leftBound, double rightBound, double length) {
+        if (rightBound > leftBound) {
+            pieces.add(new Piece(function, new Bounds(leftBound, rightBound), length));
+        }
+    }
+
+    public static class Piece {
+        private final Function function;
+        private final Bounds bounds;
+        private final double length;
+        private double share;
+
+        Piece(Function function, Bounds bounds, double length) {
+            this.function = function;
+            this.bounds = bounds;
+            this.length = length;
+        }
+
+        public Function getFunction() {
+            return function;
+        }
+
+        public Bounds getBounds() {
+            return bounds;
+        }
+
+        // part of the accuracy and of the budget given to the piece, the shares sum up to 1
+        public double getShare() {
+            return share;
+        }
+    }
+
+    // f(centre + t) + f(centre - t), the derivatives of an even order keep the same form
+    private static class SymmetricFunction implements Function {
+        private final Function function;
+        private final double centre;
+
+        SymmetricFunction(Function function, double centre) {
+            this.function = function;
+            this.centre = centre;
+        }
+
+        @Override
+        public double get(double argument) {
+            return function.get(centre + argument) + function.get(centre - argument);
+        }
+
+        @Override
+        public Interval[] getNotAllowedScope() {
+            return new Interval[0];
+        }
+
+        @Override
+        public Function get2Derivative() throws NotImplementedMethodException {
+            return new SymmetricFunction(function.get2Derivative(), centre);
+        }
+
+        @Override
+        public Function get4Derivative() throws NotImplementedMethodException {
+            return new SymmetricFunction(function.get4Derivative(), centre);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+public abstract class Summator {
+    public abstract void add(double value);
+
+    public void add(double[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            add(values[i]);
+        }
+    }
+
+    public abstract double getSum();
+
+    public static Summator of(TypeOfSummation summationType) {
+        switch (summationType) {
+            case COMPENSATED_SUMMATION:
+                return new CompensatedSummator();
+            case PAIRWISE_SUMMATION:
+                return new PairwiseSummator();
+            case NAIVE_SUMMATION:
+            default:
+                return new NaiveSummator();
+        }
+    }
+
+    private static class NaiveSummator extends Summator {
+        private double sum = 0d;
+
+        @Override
+        public void add(double value) {
+            sum += value;
+        }
+
+        @Override
+        public void add(double[] values, int count) {
+            double sum = this.sum;
+
+            for (int i = 0; i < count; i++) {
+                sum += values[i];
+            }
+
+            this.sum = sum;
+        }
+
+        @Override
+        public double getSum() {
+            return sum;
+        }
+    }
+
+    // Neumaier's variant of Kahan summation: also exact when the added value is larger than the sum
+    private static class CompensatedSummator extends Summator {
+        private double sum = 0d;
+        private double compensation = 0d;
+
+        @Override
+        public void add(double value) {
+            double newSum = sum + value;
+
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - newSum) + value;
+            } else {
+                compensation += (value - newSum) + sum;
+            }
+
+            sum = newSum;
+        }
+
+        @Override
+        public double getSum() {
+            return sum + compensation;
+        }
+    }
+
+    // every added value is a leaf of a balanced binary tree, levels[k] keeps a pending sum of 2^k leaves
+    private static class PairwiseSummator extends Summator {
+        private final double[] levels = new double[64];
+        private long count = 0L;
+
+        @Override
+        public void add(double value) {
+            int level = 0;
+
+            for (long carry = count; (carry & 1L) != 0L; carry >>>= 1) {
+                value += levels[level];
+                level++;
+            }
+
+            levels[level] = value;
+            count++;
+        }
+
+        @Override
+        public double getSum() {
+            double sum = 0d;
+
+            for (int level = 0; level < levels.length; level++) {
+                if ((count >>> level & 1L) != 0L) {
+                    sum += levels[level];
+                }
+            }
+
+            return sum;
+        }
+    }
+}
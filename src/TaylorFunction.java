@@ -0,0 +1,39 @@
+public interface TaylorFunction extends Function {
+    // the same function written against TaylorNumber, derivatives up to TaylorNumber.ORDER come from it
+    TaylorNumber get(TaylorNumber argument);
+
+    @Override
+    default Function get2Derivative() {
+        return getDerivative(2);
+    }
+
+    @Override
+    default Function get4Derivative() {
+        return getDerivative(4);
+    }
+
+    default Function getDerivative(int order) {
+        if (order < 0 || order > TaylorNumber.ORDER) {
+            throw new IllegalArgumentException("Order of derivative should be from 0 to " + TaylorNumber.ORDER);
+        }
+
+        TaylorFunction function = this;
+
+        return new DerivativeFunc() {
+            @Override
+            public double get(double argument) {
+                return function.get(TaylorNumber.variable(argument)).getDerivative(order);
+            }
+
+            @Override
+            public Interval[] getNotAllowedScope() {
+                return function.getNotAllowedScope();
+            }
+
+            @Override
+            public ScopeIndex getScopeIndex() {
+                return function.getScopeIndex();
+            }
+        };
+    }
+}
@@ -0,0 +1,241 @@
+// truncated Taylor series f(x0 + t) = c0 + c1 * t + ... + c4 * t^4, used for forward-mode differentiation
+public final class TaylorNumber {
+    public static final int ORDER = 4;
+
+    private final double[] coefficients;
+
+    private TaylorNumber(double[] coefficients) {
+        this.coefficients = coefficients;
+    }
+
+    public static TaylorNumber constant(double value) {
+        double[] res = new double[ORDER + 1];
+        res[0] = value;
+        return new TaylorNumber(res);
+    }
+
+    public static TaylorNumber variable(double argument) {
+        double[] res = new double[ORDER + 1];
+        res[0] = argument;
+        res[1] = 1d;
+        return new TaylorNumber(res);
+    }
+
+    public double getValue() {
+        return coefficients[0];
+    }
+
+    public double getDerivative(int order) {
+        double factorial = 1d;
+
+        for (int k = 2; k <= order; k++) {
+            factorial *= k;
+        }
+
+        return coefficients[order] * factorial;
+    }
+
+    public TaylorNumber add(TaylorNumber that) {
+        double[] res = new double[ORDER + 1];
+
+        for (int k = 0; k <= ORDER; k++) {
+            res[k] = coefficients[k] + that.coefficients[k];
+        }
+
+        return new TaylorNumber(res);
+    }
+
+    public TaylorNumber add(double value) {
+        double[] res = coefficients.clone();
+        res[0] += value;
+        return new TaylorNumber(res);
+    }
+
+    public TaylorNumber subtract(TaylorNumber that) {
+        double[] res = new double[ORDER + 1];
+
+        for (int k = 0; k <= ORDER; k++) {
+            res[k] = coefficients[k] - that.coefficients[k];
+        }
+
+        return new TaylorNumber(res);
+    }
+
+    public TaylorNumber negate() {
+        return multiply(-1d);
+    }
+
+    public TaylorNumber multiply(double value) {
+        double[] res = new double[ORDER + 1];
+
+        for (int k = 0; k <= ORDER; k++) {
+            res[k] = coefficients[k] * value;
+        }
+
+        return new TaylorNumber(res);
+    }
+
+    public TaylorNumber multiply(TaylorNumber that) {
+        double[] a = coefficients;
+        double[] b = that.coefficients;
+        double[] res = new double[ORDER + 1];
+
+        for (int k = 0; k <= ORDER; k++) {
+            for (int j = 0; j <= k; j++) {
+                res[k] += a[j] * b[k - j];
+            }
+        }
+
+        return new TaylorNumber(res);
+    }
+
+    public TaylorNumber divide(TaylorNumber that) {
+        double[] a = coefficients;
+        double[] b = that.coefficients;
+        double[] res = new double[ORDER + 1];
+
+        for (int k = 0; k <= ORDER; k++) {
+            double sum = a[k];
+
+            for (int j = 1; j <= k; j++) {
+                sum -= b[j] * res[k - j];
+            }
+
+            res[k] = sum / b[0];
+        }
+
+        return new TaylorNumber(res);
+    }
+
+    public TaylorNumber pow(int exponent) {
+        TaylorNumber base = exponent < 0 ? constant(1d).divide(this) : this;
+        TaylorNumber res = constant(1d);
+
+        for (int n = Math.abs(exponent); n != 0; n >>>= 1) {
+            if ((n & 1) != 0) {
+                res = res.multiply(base);
+            }
+
+            base = base.multiply(base);
+        }
+
+        return res;
+    }
+
+    // a0 * y' = p * a' * y in coefficients, needs a0 != 0
+    public TaylorNumber pow(double exponent) {
+        double[] a = coefficients;
+        double[] res = new double[ORDER + 1];
+        res[0] = Math.pow(a[0], exponent);
+
+        for (int k = 1; k <= ORDER; k++) {
+            double sum = 0d;
+
+            for (int j = 1; j <= k; j++) {
+                sum += (exponent * j - (k - j)) * a[j] * res[k - j];
+            }
+
+            res[k] = sum / (k * a[0]);
+        }
+
+        return new TaylorNumber(res);
+    }
+
+    public TaylorNumber pow(TaylorNumber that) {
+        return that.multiply(ln()).exp();
+    }
+
+    public TaylorNumber sqrt() {
+        double[] a = coefficients;
+        double[] res = new double[ORDER + 1];
+        res[0] = Math.sqrt(a[0]);
+
+        for (int k = 1; k <= ORDER; k++) {
+            double sum = a[k];
+
+            for (int j = 1; j < k; j++) {
+                sum -= res[j] * res[k - j];
+            }
+
+            res[k] = sum / (2 * res[0]);
+        }
+
+        return new TaylorNumber(res);
+    }
+
+    public TaylorNumber exp() {
+        double[] a = coefficients;
+        double[] res = new double[ORDER + 1];
+        res[0] = Math.exp(a[0]);
+
+        for (int k = 1; k <= ORDER; k++) {
+            double sum = 0d;
+
+            for (int j = 1; j <= k; j++) {
+                sum += j * a[j] * res[k - j];
+            }
+
+            res[k] = sum / k;
+        }
+
+        return new TaylorNumber(res);
+    }
+
+    public TaylorNumber ln() {
+        double[] a = coefficients;
+        double[] res = new double[ORDER + 1];
+        res[0] = Math.log(a[0]);
+
+        for (int k = 1; k <= ORDER; k++) {
+            double sum = 0d;
+
+            for (int j = 1; j < k; j++) {
+                sum += j * res[j] * a[k - j];
+            }
+
+            res[k] = (a[k] - sum / k) / a[0];
+        }
+
+        return new TaylorNumber(res);
+    }
+
+    public TaylorNumber sin() {
+        return getSinCos()[0];
+    }
+
+    public TaylorNumber cos() {
+        return getSinCos()[1];
+    }
+
+    public TaylorNumber tan() {
+        TaylorNumber[] sinCos = getSinCos();
+        return sinCos[0].divide(sinCos[1]);
+    }
+
+    public TaylorNumber abs() {
+        return coefficients[0] < 0 ? negate() : this;
+    }
+
+    private TaylorNumber[] getSinCos() {
+        double[] a = coefficients;
+        double[] sin = new double[ORDER + 1];
+        double[] cos = new double[ORDER + 1];
+        sin[0] = Math.sin(a[0]);
+        cos[0] = Math.cos(a[0]);
+
+        for (int k = 1; k <= ORDER; k++) {
+            double sinSum = 0d;
+            double cosSum = 0d;
+
+            for (int j = 1; j <= k; j++) {
+                sinSum += j * a[j] * cos[k - j];
+                cosSum += j * a[j] * sin[k - j];
+            }
+
+            sin[k] = sinSum / k;
+            cos[k] = -cosSum / k;
+        }
+
+        return new TaylorNumber[]{new TaylorNumber(sin), new TaylorNumber(cos)};
+    }
+}
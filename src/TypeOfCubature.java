@@ -0,0 +1,4 @@
+public enum TypeOfCubature {
+    CUBATURE_BY_GAUSS_LEGENDRE,
+    CUBATURE_BY_QUASI_MONTE_CARLO
+}
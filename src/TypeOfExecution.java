@@ -0,0 +1,4 @@
+public enum TypeOfExecution {
+    SEQUENTIAL_EXECUTION,
+    PARALLEL_EXECUTION
+}
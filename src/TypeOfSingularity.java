@@ -0,0 +1,4 @@
+public enum TypeOfSingularity {
+    REMOVABLE_SINGULARITY,
+    POLE_SINGULARITY
+}
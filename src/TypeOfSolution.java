@@ -1,4 +1,7 @@
 public enum TypeOfSolution {
     SOLUTION_BY_FORMULAS,
-    SOLUTION_BY_RUNGE
+    SOLUTION_BY_RUNGE,
+    SOLUTION_ADAPTIVE,
+    SOLUTION_BY_ROMBERG,
+    SOLUTION_BY_DOUBLE_EXPONENTIAL
 }
@@ -0,0 +1,5 @@
+public enum TypeOfSummation {
+    NAIVE_SUMMATION,
+    COMPENSATED_SUMMATION,
+    PAIRWISE_SUMMATION
+}
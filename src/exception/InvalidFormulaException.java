@@ -0,0 +1,7 @@
+package exception;
+
+public class InvalidFormulaException extends Exception {
+    public InvalidFormulaException(String reason) {
+        super(reason);
+    }
+}